@@ -0,0 +1,81 @@
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+public class BenchmarkFixtures {
+    public static IntSupplier navigator(int gridId, String mode) {
+        AutonomousVehicleNavigator navigator = new AutonomousVehicleNavigator(gridId, false);
+        return solver(navigator, SearchMode.valueOf(mode));
+    }
+
+    public static IntSupplier randomNavigator(int size, double jammedRatio, long seed, String mode) {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(size, size, jammedRatio, seed);
+        AutonomousVehicleNavigator navigator = new AutonomousVehicleNavigator(grid, false);
+        return solver(navigator, SearchMode.valueOf(mode));
+    }
+
+    public static IntSupplier randomGrid(int size, double jammedRatio, long seed) {
+        return () -> AutonomousVehicleNavigator.GridFactory.randomizeGrid(size, size, jammedRatio, seed).getGoalCell();
+    }
+
+    public static IntSupplier batch(int size, double jammedRatio, long seed, int queries, int parallelism, String mode) {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(size, size, jammedRatio, seed);
+        BatchNavigator navigator = new BatchNavigator(grid, SearchMode.valueOf(mode), new ForkJoinPool(parallelism));
+        int[] startCells = randomClearCells(grid, queries, seed + 1);
+        int[] goalCells = randomClearCells(grid, queries, seed + 2);
+        return () -> (int) navigator.Solve(startCells, goalCells).filter(RouteResult::isSolved).count();
+    }
+
+    public static IntSupplier fleet(int size, double jammedRatio, long seed, int agents, long budgetMillis) {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(size, size, jammedRatio, seed);
+        AutonomousVehicleNavigator navigator = new AutonomousVehicleNavigator(grid, false);
+        int[] startCells = randomDistinctClearCells(grid, agents, seed + 1);
+        int[] goalCells = randomDistinctClearCells(grid, agents, seed + 2);
+        return () -> {
+            int[][] paths = navigator.SolveFleet(startCells, goalCells, SearchBudget.ofMillis(budgetMillis));
+            int arrived = 0;
+            for (int agent = 0; agent < agents; agent++)
+                if (paths[agent] != null && paths[agent][paths[agent].length - 1] == goalCells[agent])
+                    arrived++;
+            return arrived;
+        };
+    }
+
+    static int[] randomDistinctClearCells(Grid grid, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BitSet used = new BitSet(grid.getCellCount());
+        int[] cells = new int[count];
+        for (int i = 0; i < count; i++) {
+            do {
+                cells[i] = random.nextInt(grid.getCellCount());
+            } while (grid.isJammed(cells[i]) || used.get(cells[i]));
+            used.set(cells[i]);
+        }
+        return cells;
+    }
+
+    static int[] randomClearCells(Grid grid, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] cells = new int[count];
+        for (int i = 0; i < count; i++) {
+            do {
+                cells[i] = random.nextInt(grid.getCellCount());
+            } while (grid.isJammed(cells[i]));
+        }
+        return cells;
+    }
+
+    public static BooleanSupplier vacuum(int roomCount) {
+        VacuumSolver solver = new VacuumSolver(roomCount, false);
+        return solver::Solve;
+    }
+
+    private static IntSupplier solver(AutonomousVehicleNavigator navigator, SearchMode mode) {
+        return () -> {
+            navigator.Solve(mode);
+            return (int) Math.min(Integer.MAX_VALUE, navigator.getExpansions());
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BatchNavigatorBenchmark {
+    static final int QUERIES = 256;
+
+    @Param({"512"})
+    public int size;
+
+    @Param({"0.25"})
+    public double jammedRatio;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"AStar"})
+    public String mode;
+
+    @Param("42")
+    public long seed;
+
+    private IntSupplier _solve;
+
+    @Setup
+    public void setup() {
+        _solve = Fixtures.create("batch", new Class<?>[] {int.class, double.class, long.class, int.class, int.class, String.class},
+                size, jammedRatio, seed, QUERIES, parallelism, mode);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int solve() {
+        return _solve.getAsInt();
+    }
+}
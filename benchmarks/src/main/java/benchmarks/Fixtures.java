@@ -0,0 +1,20 @@
+package benchmarks;
+
+import java.lang.reflect.Method;
+
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    // The solvers live in the unnamed package, which cannot be imported from here,
+    // so BenchmarkFixtures hands them over as JDK functional interfaces.
+    @SuppressWarnings("unchecked")
+    static <T> T create(String factory, Class<?>[] parameterTypes, Object... args) {
+        try {
+            Method method = Class.forName("BenchmarkFixtures").getMethod(factory, parameterTypes);
+            return (T) method.invoke(null, args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create fixture " + factory, e);
+        }
+    }
+}
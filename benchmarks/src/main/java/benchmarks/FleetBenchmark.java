@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FleetBenchmark {
+    @Param({"64", "256"})
+    public int size;
+
+    @Param({"0.2"})
+    public double jammedRatio;
+
+    @Param({"50", "200", "500"})
+    public int agents;
+
+    @Param("1000")
+    public long budgetMillis;
+
+    @Param("42")
+    public long seed;
+
+    private IntSupplier _solve;
+
+    @Setup
+    public void setup() {
+        _solve = Fixtures.create("fleet", new Class<?>[] {int.class, double.class, long.class, int.class, long.class},
+                size, jammedRatio, seed, agents, budgetMillis);
+    }
+
+    @Benchmark
+    public int solve() {
+        return _solve.getAsInt();
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GridGenerationBenchmark {
+    @Param({"1024", "4096", "10000"})
+    public int size;
+
+    @Param("0.25")
+    public double jammedRatio;
+
+    @Param("42")
+    public long seed;
+
+    private IntSupplier _generate;
+
+    @Setup
+    public void setup() {
+        _generate = Fixtures.create("randomGrid", new Class<?>[] {int.class, double.class, long.class},
+                size, jammedRatio, seed);
+    }
+
+    @Benchmark
+    public int generate() {
+        return _generate.getAsInt();
+    }
+}
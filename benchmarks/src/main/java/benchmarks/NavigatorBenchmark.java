@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NavigatorBenchmark {
+    @Param({"1", "2", "3", "4", "5", "6"})
+    public int gridId;
+
+    @Param({"IterativeDeepening", "BreadthFirst", "AStar", "Bidirectional", "JumpPoint"})
+    public String mode;
+
+    private IntSupplier _solve;
+
+    @Setup
+    public void setup() {
+        _solve = Fixtures.create("navigator", new Class<?>[] {int.class, String.class}, gridId, mode);
+    }
+
+    @Benchmark
+    public int solve(SearchCounters counters) {
+        int expansions = _solve.getAsInt();
+        counters.expansions += expansions;
+        return expansions;
+    }
+}
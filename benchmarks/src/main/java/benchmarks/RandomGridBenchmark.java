@@ -0,0 +1,51 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RandomGridBenchmark {
+    @Param({"50", "256", "1024", "4096"})
+    public int size;
+
+    @Param({"0.1", "0.25", "0.35"})
+    public double jammedRatio;
+
+    @Param({"BreadthFirst", "ParallelBreadthFirst", "AStar", "Bidirectional", "JumpPoint", "Hierarchical", "Anytime"})
+    public String mode;
+
+    @Param("42")
+    public long seed;
+
+    private IntSupplier _solve;
+
+    @Setup
+    public void setup() {
+        _solve = Fixtures.create("randomNavigator", new Class<?>[] {int.class, double.class, long.class, String.class},
+                size, jammedRatio, seed, mode);
+    }
+
+    @Benchmark
+    public int solve(SearchCounters counters) {
+        int expansions = _solve.getAsInt();
+        counters.expansions += expansions;
+        return expansions;
+    }
+}
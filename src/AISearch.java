@@ -1,47 +1,51 @@
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class AISearch {
+    static final long _framePeriodMillis = 300;
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("serve")) {
+            try {
+                RouteService.serve(Arrays.copyOfRange(args, 1, args.length));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+
         int gridId = 0;
         AutonomousVehicleNavigator navigator = new AutonomousVehicleNavigator(gridId);
         ArrayList<SearchNode> result = navigator.Solve();
-        StaticWaiter waiter = new StaticWaiter();
+        PathRenderer renderer = new PathRenderer(navigator.getGrid());
 
         if (result != null) {
             System.out.println("Solution found:");
-            for (int j = 0; j < result.size(); j++) {
-                int finalJ = j;
-                waiter.staticWait(300);
-                clear();
-                System.out.println(result.get(j).toString() + " -> ");
-                System.out.println(AutonomousVehicleNavigator.GridFactory.GetMapAtState(
-                        result.stream().limit(j + 1).collect(Collectors.toList()).toArray(new SearchNode[j + 1]),
-                        gridId, navigator.exploredSet.stream().filter(node -> node.depth <= finalJ).collect(Collectors.toList())));
+            int[] path = new int[result.size()];
+            for (int j = 0; j < path.length; j++)
+                path[j] = navigator.getGrid().toCell(result.get(j).gridState.posX, result.get(j).gridState.posY);
+            renderer.setPath(path, navigator.getExplored());
+
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            try {
+                renderer.replay(scheduler, _framePeriodMillis).join();
             }
+            finally {
+                scheduler.shutdown();
+            }
+            System.out.println();
             System.out.println("Explored nodes: " + navigator.getExploredCount());
         }
         else {
             System.out.println("No solution found:");
-            System.out.println(AutonomousVehicleNavigator.GridFactory.GetMapAtState(
-                    new SearchNode[0],
-                    gridId, navigator.exploredSet));
+            renderer.setPath(null, navigator.getExplored());
+            renderer.renderExplored();
+            System.out.println();
             System.out.println("Explored nodes: " + navigator.getExploredCount());
         }
     }
-
-    public static void clear()
-    {
-        try
-        {
-            if (System.getProperty("os.name").contains("Windows"))
-                new ProcessBuilder("cmd", "/c", "cls").inheritIO().start().waitFor();
-            else
-                Runtime.getRuntime().exec("clear");
-        } catch (IOException | InterruptedException ex) {}
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+class AStarEngine extends AbstractSearchEngine {
+    private final ExploredIndex _explored = new ExploredIndex();
+    private final ExploredIndex _reached = new ExploredIndex();
+    private int[] _parent = new int[0];
+    private int[] _successors = new int[0];
+    private CellHeap _frontier;
+    private final boolean _useHeuristic;
+    private SearchBudget _budget;
+
+    public AStarEngine() {
+        this(true);
+    }
+
+    public AStarEngine(boolean useHeuristicIn) {
+        _useHeuristic = useHeuristicIn;
+    }
+
+    public void setBudget(SearchBudget budget) {
+        _budget = budget;
+    }
+
+    public SearchBudget getBudget() {
+        return _budget;
+    }
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        int stateCount = problem.getStateCount();
+        _explored.reset(stateCount);
+        _reached.reset(stateCount);
+        if (_parent.length != stateCount) {
+            _parent = new int[stateCount];
+            _frontier = new CellHeap(stateCount);
+        }
+        if (_successors.length < problem.getMaxSuccessors())
+            _successors = new int[problem.getMaxSuccessors()];
+        _frontier.clear();
+
+        int start = problem.getStartState();
+        _reached.mark(start, 0);
+        _parent[start] = -1;
+        _frontier.push(start, getKey(problem, start, 0));
+
+        while (!_frontier.isEmpty()) {
+            if (_budget != null && _budget.isExhausted(_stats.expansions))
+                break;
+            int state = _frontier.poll();
+            int costSoFar = _reached.getDepth(state);
+            _explored.mark(state, costSoFar);
+            _stats.expansions++;
+            if (_listener != null)
+                _listener.onExpand(problem, state, costSoFar);
+            if (problem.isGoalState(state)) {
+                _frontier.clear();
+                return new SearchResult(SearchResult.tracePath(_parent, state), _explored, _stats);
+            }
+
+            int successorCount = problem.getSuccessors(state, _successors);
+            for (int i = 0; i < successorCount; i++) {
+                int child = _successors[i];
+                int childCost = costSoFar + problem.getCost(state, child);
+                _stats.generated++;
+                if (_explored.contains(child) || (_reached.contains(child) && childCost >= _reached.getDepth(child))) {
+                    _stats.duplicates++;
+                    if (_listener != null)
+                        _listener.onDuplicate(problem, child, childCost);
+                    continue;
+                }
+                if (_listener != null)
+                    _listener.onGenerate(problem, child, childCost);
+                _reached.mark(child, childCost);
+                _parent[child] = state;
+                _frontier.push(child, getKey(problem, child, childCost));
+            }
+            _stats.updateFrontier(_frontier.size());
+        }
+        return new SearchResult(null, _explored, _stats);
+    }
+
+    private long getKey(SearchProblem problem, int state, int costSoFar) {
+        int heuristic = _useHeuristic ? problem.getHeuristic(state) : 0;
+        return ((long) (costSoFar + heuristic) << 32) | heuristic;
+    }
+}
@@ -0,0 +1,538 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+class AbstractGraph {
+    static final int _magic = 0x48504131;
+    static final int _version = 1;
+    static final int _defaultClusterSize = 32;
+    static final int _singleEntranceLength = 6;
+
+    private final Grid _grid;
+    private final int _width;
+    private final int _height;
+    private final int _clusterSize;
+    private final int _clustersX;
+    private final int _clustersY;
+    private final int[][] _eastBorders;
+    private final int[][] _southBorders;
+    private final Cluster[] _clusters;
+    private final BitSet _dirty = new BitSet();
+    private final ClusterSearch _search;
+    private volatile Snapshot _snapshot;
+    private int _rebuildCount;
+
+    private AbstractGraph(Grid gridIn, int clusterSizeIn) {
+        _grid = gridIn;
+        _width = gridIn.getWidth();
+        _height = gridIn.getHeight();
+        _clusterSize = clusterSizeIn;
+        _clustersX = (_width + clusterSizeIn - 1) / clusterSizeIn;
+        _clustersY = (_height + clusterSizeIn - 1) / clusterSizeIn;
+        _eastBorders = new int[getClusterCount()][];
+        _southBorders = new int[getClusterCount()][];
+        _clusters = new Cluster[getClusterCount()];
+        _search = new ClusterSearch(clusterSizeIn);
+    }
+
+    public static AbstractGraph build(Grid grid) {
+        return build(grid, _defaultClusterSize);
+    }
+
+    public static AbstractGraph build(Grid grid, int clusterSize) {
+        if (clusterSize < 2)
+            throw new IllegalArgumentException("Cluster size must be at least 2, got " + clusterSize);
+        AbstractGraph graph = new AbstractGraph(grid, clusterSize);
+        IntStream.range(0, graph.getClusterCount()).parallel().forEach(cluster -> {
+            graph._eastBorders[cluster] = graph.findEastEntrances(cluster);
+            graph._southBorders[cluster] = graph.findSouthEntrances(cluster);
+        });
+        ThreadLocal<ClusterSearch> searches = ThreadLocal.withInitial(() -> new ClusterSearch(clusterSize));
+        IntStream.range(0, graph.getClusterCount()).parallel()
+                .forEach(cluster -> graph._clusters[cluster] = graph.buildCluster(cluster, searches.get()));
+        graph._rebuildCount = graph.getClusterCount();
+        graph.publish();
+        return graph;
+    }
+
+    public Grid getGrid() {
+        return _grid;
+    }
+
+    public int getClusterSize() {
+        return _clusterSize;
+    }
+
+    public int getClusterCount() {
+        return _clustersX * _clustersY;
+    }
+
+    public int getNodeCount() {
+        return _snapshot.getNodeCount();
+    }
+
+    public synchronized long getSizeInBytes() {
+        Snapshot snapshot = _snapshot;
+        long bytes = 8L * snapshot._nodeCells.length + 4L * snapshot._offsets.length;
+        for (int cluster = 0; cluster < _clusters.length; cluster++) {
+            Cluster c = _clusters[cluster];
+            bytes += 4L * (_eastBorders[cluster].length + _southBorders[cluster].length + c.nodeCells.length
+                    + c.linkOffsets.length + c.links.length + c.distances.length);
+        }
+        return bytes;
+    }
+
+    public int getRebuildCount() {
+        return _rebuildCount;
+    }
+
+    public Snapshot getSnapshot() {
+        return _snapshot;
+    }
+
+    public int getClusterOf(int cell) {
+        return (cell / _width / _clusterSize) * _clustersX + (cell % _width) / _clusterSize;
+    }
+
+    int getClusterX(int cluster) {
+        return (cluster % _clustersX) * _clusterSize;
+    }
+
+    int getClusterY(int cluster) {
+        return (cluster / _clustersX) * _clusterSize;
+    }
+
+    int getClusterWidth(int cluster) {
+        return Math.min(_clusterSize, _width - getClusterX(cluster));
+    }
+
+    int getClusterHeight(int cluster) {
+        return Math.min(_clusterSize, _height - getClusterY(cluster));
+    }
+
+    public synchronized void onCellChanged(int cell) {
+        int x = cell % _width;
+        int y = cell / _width;
+        int cluster = getClusterOf(cell);
+        _dirty.set(cluster);
+        if (x % _clusterSize == 0 && x > 0)
+            _dirty.set(cluster - 1);
+        if (x % _clusterSize == _clusterSize - 1 && x < _width - 1)
+            _dirty.set(cluster + 1);
+        if (y % _clusterSize == 0 && y > 0)
+            _dirty.set(cluster - _clustersX);
+        if (y % _clusterSize == _clusterSize - 1 && y < _height - 1)
+            _dirty.set(cluster + _clustersX);
+    }
+
+    public synchronized boolean refresh() {
+        if (_dirty.isEmpty())
+            return false;
+
+        BitSet rebuild = (BitSet) _dirty.clone();
+        for (int cluster = _dirty.nextSetBit(0); cluster >= 0; cluster = _dirty.nextSetBit(cluster + 1)) {
+            int cx = cluster % _clustersX;
+            int cy = cluster / _clustersX;
+            updateEastBorder(cluster, rebuild);
+            updateSouthBorder(cluster, rebuild);
+            if (cx > 0)
+                updateEastBorder(cluster - 1, rebuild);
+            if (cy > 0)
+                updateSouthBorder(cluster - _clustersX, rebuild);
+        }
+        for (int cluster = rebuild.nextSetBit(0); cluster >= 0; cluster = rebuild.nextSetBit(cluster + 1)) {
+            _clusters[cluster] = buildCluster(cluster, _search);
+            _rebuildCount++;
+        }
+        _dirty.clear();
+        publish();
+        return true;
+    }
+
+    private void updateEastBorder(int cluster, BitSet rebuild) {
+        int[] entrances = findEastEntrances(cluster);
+        if (!Arrays.equals(entrances, _eastBorders[cluster])) {
+            _eastBorders[cluster] = entrances;
+            rebuild.set(cluster);
+            rebuild.set(cluster + 1);
+        }
+    }
+
+    private void updateSouthBorder(int cluster, BitSet rebuild) {
+        int[] entrances = findSouthEntrances(cluster);
+        if (!Arrays.equals(entrances, _southBorders[cluster])) {
+            _southBorders[cluster] = entrances;
+            rebuild.set(cluster);
+            rebuild.set(cluster + _clustersX);
+        }
+    }
+
+    private int[] findEastEntrances(int cluster) {
+        if (cluster % _clustersX == _clustersX - 1)
+            return new int[0];
+        int x = getClusterX(cluster) + _clusterSize - 1;
+        int y0 = getClusterY(cluster);
+        return findEntrances(y0 * _width + x, _width, 1, getClusterHeight(cluster));
+    }
+
+    private int[] findSouthEntrances(int cluster) {
+        if (cluster / _clustersX == _clustersY - 1)
+            return new int[0];
+        int x0 = getClusterX(cluster);
+        int y = getClusterY(cluster) + _clusterSize - 1;
+        return findEntrances(y * _width + x0, 1, _width, getClusterWidth(cluster));
+    }
+
+    private int[] findEntrances(int firstCell, int step, int across, int length) {
+        int[] entrances = new int[length * 2];
+        int count = 0;
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int cell = firstCell + i * step;
+            boolean open = i < length && !_grid.isJammed(cell) && !_grid.isJammed(cell + across);
+            if (open && runStart == -1) {
+                runStart = i;
+            }
+            else if (!open && runStart != -1) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 < _singleEntranceLength) {
+                    int middle = firstCell + ((runStart + runEnd) >>> 1) * step;
+                    entrances[count++] = middle;
+                    entrances[count++] = middle + across;
+                }
+                else {
+                    int first = firstCell + runStart * step;
+                    int last = firstCell + runEnd * step;
+                    entrances[count++] = first;
+                    entrances[count++] = first + across;
+                    entrances[count++] = last;
+                    entrances[count++] = last + across;
+                }
+                runStart = -1;
+            }
+        }
+        return Arrays.copyOf(entrances, count);
+    }
+
+    private Cluster buildCluster(int cluster, ClusterSearch search) {
+        int cx = cluster % _clustersX;
+        int cy = cluster / _clustersX;
+        int[] east = _eastBorders[cluster];
+        int[] south = _southBorders[cluster];
+        int[] west = cx > 0 ? _eastBorders[cluster - 1] : new int[0];
+        int[] north = cy > 0 ? _southBorders[cluster - _clustersX] : new int[0];
+
+        int pairCount = (east.length + south.length + west.length + north.length) / 2;
+        long[] pairs = new long[pairCount];
+        int count = 0;
+        for (int i = 0; i < east.length; i += 2)
+            pairs[count++] = ((long) east[i] << 32) | east[i + 1];
+        for (int i = 0; i < south.length; i += 2)
+            pairs[count++] = ((long) south[i] << 32) | south[i + 1];
+        for (int i = 0; i < west.length; i += 2)
+            pairs[count++] = ((long) west[i + 1] << 32) | west[i];
+        for (int i = 0; i < north.length; i += 2)
+            pairs[count++] = ((long) north[i + 1] << 32) | north[i];
+        Arrays.sort(pairs);
+
+        int nodeCount = 0;
+        for (int i = 0; i < pairCount; i++)
+            if (i == 0 || (int) (pairs[i] >>> 32) != (int) (pairs[i - 1] >>> 32))
+                nodeCount++;
+
+        Cluster result = new Cluster();
+        result.nodeCells = new int[nodeCount];
+        result.linkOffsets = new int[nodeCount + 1];
+        result.links = new int[pairCount];
+        int node = -1;
+        for (int i = 0; i < pairCount; i++) {
+            int cell = (int) (pairs[i] >>> 32);
+            if (node == -1 || result.nodeCells[node] != cell) {
+                result.nodeCells[++node] = cell;
+                result.linkOffsets[node] = i;
+            }
+            result.links[i] = (int) pairs[i];
+        }
+        result.linkOffsets[nodeCount] = pairCount;
+
+        result.distances = new int[nodeCount * nodeCount];
+        for (int from = 0; from < nodeCount; from++) {
+            search.run(this, cluster, result.nodeCells[from]);
+            for (int to = 0; to < nodeCount; to++)
+                result.distances[from * nodeCount + to] = search.getDistance(result.nodeCells[to]);
+        }
+        return result;
+    }
+
+    private void publish() {
+        Cluster[] clusters = _clusters.clone();
+        int[] offsets = new int[clusters.length + 1];
+        int total = 0;
+        for (int cluster = 0; cluster < clusters.length; cluster++) {
+            offsets[cluster] = total;
+            total += clusters[cluster].nodeCells.length;
+        }
+        offsets[clusters.length] = total;
+        int[] nodeCells = new int[total];
+        int[] nodeClusters = new int[total];
+        for (int cluster = 0; cluster < clusters.length; cluster++) {
+            int[] cells = clusters[cluster].nodeCells;
+            System.arraycopy(cells, 0, nodeCells, offsets[cluster], cells.length);
+            Arrays.fill(nodeClusters, offsets[cluster], offsets[cluster + 1], cluster);
+        }
+        _snapshot = new Snapshot(clusters, offsets, nodeCells, nodeClusters);
+    }
+
+    static long checksum(Grid grid) {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[1 << 12];
+        int cellCount = grid.getCellCount();
+        int length = 0;
+        for (int cell = 0; cell < cellCount; cell += 8) {
+            int packed = 0;
+            for (int i = 0; i < 8 && cell + i < cellCount; i++)
+                if (grid.isJammed(cell + i))
+                    packed |= 1 << i;
+            chunk[length++] = (byte) packed;
+            if (length == chunk.length) {
+                crc.update(chunk, 0, length);
+                length = 0;
+            }
+        }
+        crc.update(chunk, 0, length);
+        return crc.getValue();
+    }
+
+    public synchronized void write(Path path) throws IOException {
+        refresh();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(_magic);
+            out.writeInt(_version);
+            out.writeInt(_width);
+            out.writeInt(_height);
+            out.writeInt(_clusterSize);
+            out.writeLong(checksum(_grid));
+            for (int cluster = 0; cluster < _clusters.length; cluster++) {
+                writeArray(out, _eastBorders[cluster]);
+                writeArray(out, _southBorders[cluster]);
+                Cluster c = _clusters[cluster];
+                writeArray(out, c.nodeCells);
+                writeArray(out, c.linkOffsets);
+                writeArray(out, c.links);
+                writeArray(out, c.distances);
+            }
+        }
+    }
+
+    public static AbstractGraph read(Grid grid, Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != _magic)
+                throw new IOException("Not an abstract graph file");
+            int version = in.readInt();
+            if (version != _version)
+                throw new IOException("Unsupported abstract graph version " + version);
+            int width = in.readInt();
+            int height = in.readInt();
+            int clusterSize = in.readInt();
+            if (width != grid.getWidth() || height != grid.getHeight())
+                throw new IOException("Abstract graph is for a " + width + "x" + height + " grid");
+            if (in.readLong() != checksum(grid))
+                throw new IOException("Abstract graph was built for a different grid");
+
+            AbstractGraph graph = new AbstractGraph(grid, clusterSize);
+            for (int cluster = 0; cluster < graph.getClusterCount(); cluster++) {
+                graph._eastBorders[cluster] = readArray(in);
+                graph._southBorders[cluster] = readArray(in);
+                Cluster c = new Cluster();
+                c.nodeCells = readArray(in);
+                c.linkOffsets = readArray(in);
+                c.links = readArray(in);
+                c.distances = readArray(in);
+                graph._clusters[cluster] = c;
+            }
+            graph.publish();
+            return graph;
+        }
+    }
+
+    private static void writeArray(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values)
+            out.writeInt(value);
+    }
+
+    private static int[] readArray(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = in.readInt();
+        return values;
+    }
+
+    final class Snapshot {
+        private final Cluster[] _clusters;
+        private final int[] _offsets;
+        private final int[] _nodeCells;
+        private final int[] _nodeClusters;
+
+        Snapshot(Cluster[] clustersIn, int[] offsetsIn, int[] nodeCellsIn, int[] nodeClustersIn) {
+            _clusters = clustersIn;
+            _offsets = offsetsIn;
+            _nodeCells = nodeCellsIn;
+            _nodeClusters = nodeClustersIn;
+        }
+
+        public int getNodeCount() {
+            return _nodeCells.length;
+        }
+
+        int getNodeCell(int node) {
+            return _nodeCells[node];
+        }
+
+        int getNodeCluster(int node) {
+            return _nodeClusters[node];
+        }
+
+        int getFirstNode(int cluster) {
+            return _offsets[cluster];
+        }
+
+        int getNodeCount(int cluster) {
+            return _offsets[cluster + 1] - _offsets[cluster];
+        }
+
+        int getIntraDistance(int cluster, int from, int to) {
+            Cluster c = _clusters[cluster];
+            return c.distances[from * c.nodeCells.length + to];
+        }
+
+        int getLinkCount(int node) {
+            Cluster c = _clusters[_nodeClusters[node]];
+            int local = node - _offsets[_nodeClusters[node]];
+            return c.linkOffsets[local + 1] - c.linkOffsets[local];
+        }
+
+        int getLinkedNode(int node, int link) {
+            Cluster c = _clusters[_nodeClusters[node]];
+            int local = node - _offsets[_nodeClusters[node]];
+            int partnerCell = c.links[c.linkOffsets[local] + link];
+            int partnerCluster = getClusterOf(partnerCell);
+            int[] partnerCells = _clusters[partnerCluster].nodeCells;
+            for (int i = 0; i < partnerCells.length; i++)
+                if (partnerCells[i] == partnerCell)
+                    return _offsets[partnerCluster] + i;
+            throw new IllegalStateException("Entrance " + partnerCell + " is missing from cluster " + partnerCluster);
+        }
+    }
+
+    static class Cluster {
+        int[] nodeCells;
+        int[] linkOffsets;
+        int[] links;
+        int[] distances;
+    }
+}
+
+class ClusterSearch {
+    private final int[] _depth;
+    private final int[] _stamp;
+    private final int[] _queue;
+    private int _generation;
+    private int _x0;
+    private int _y0;
+    private int _clusterWidth;
+    private int _clusterHeight;
+    private int _gridWidth;
+
+    public ClusterSearch(int clusterSizeIn) {
+        _depth = new int[clusterSizeIn * clusterSizeIn];
+        _stamp = new int[clusterSizeIn * clusterSizeIn];
+        _queue = new int[clusterSizeIn * clusterSizeIn];
+    }
+
+    public void run(AbstractGraph graph, int cluster, int sourceCell) {
+        Grid grid = graph.getGrid();
+        _gridWidth = grid.getWidth();
+        _x0 = graph.getClusterX(cluster);
+        _y0 = graph.getClusterY(cluster);
+        _clusterWidth = graph.getClusterWidth(cluster);
+        _clusterHeight = graph.getClusterHeight(cluster);
+        if (++_generation == Integer.MAX_VALUE) {
+            Arrays.fill(_stamp, 0);
+            _generation = 1;
+        }
+
+        int source = toLocal(sourceCell);
+        _stamp[source] = _generation;
+        _depth[source] = 0;
+        int head = 0, tail = 0;
+        _queue[tail++] = source;
+        while (head < tail) {
+            int local = _queue[head++];
+            int x = local % _clusterWidth;
+            int y = local / _clusterWidth;
+            int depth = _depth[local] + 1;
+            if (y > 0)
+                tail = visit(grid, local - _clusterWidth, depth, tail);
+            if (x > 0)
+                tail = visit(grid, local - 1, depth, tail);
+            if (y < _clusterHeight - 1)
+                tail = visit(grid, local + _clusterWidth, depth, tail);
+            if (x < _clusterWidth - 1)
+                tail = visit(grid, local + 1, depth, tail);
+        }
+    }
+
+    private int visit(Grid grid, int local, int depth, int tail) {
+        if (_stamp[local] == _generation || grid.isJammed(toCell(local)))
+            return tail;
+        _stamp[local] = _generation;
+        _depth[local] = depth;
+        _queue[tail] = local;
+        return tail + 1;
+    }
+
+    public int getDistance(int cell) {
+        int local = toLocal(cell);
+        return _stamp[local] == _generation ? _depth[local] : -1;
+    }
+
+    public int appendPathTo(int targetCell, int[] path, int offset) {
+        int local = toLocal(targetCell);
+        int depth = _depth[local];
+        for (int i = depth; i > 0; i--) {
+            path[offset + i - 1] = toCell(local);
+            int x = local % _clusterWidth;
+            int y = local / _clusterWidth;
+            if (y > 0 && isAt(local - _clusterWidth, i - 1))
+                local -= _clusterWidth;
+            else if (x > 0 && isAt(local - 1, i - 1))
+                local -= 1;
+            else if (y < _clusterHeight - 1 && isAt(local + _clusterWidth, i - 1))
+                local += _clusterWidth;
+            else
+                local += 1;
+        }
+        return offset + depth;
+    }
+
+    private boolean isAt(int local, int depth) {
+        return _stamp[local] == _generation && _depth[local] == depth;
+    }
+
+    private int toLocal(int cell) {
+        return (cell / _gridWidth - _y0) * _clusterWidth + (cell % _gridWidth - _x0);
+    }
+
+    private int toCell(int local) {
+        return (_y0 + local / _clusterWidth) * _gridWidth + _x0 + local % _clusterWidth;
+    }
+}
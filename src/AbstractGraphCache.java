@@ -0,0 +1,203 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+class AbstractGraphCache {
+    static final long _defaultMaxBytes = 128L << 20;
+
+    private static final AbstractGraphCache _default = new AbstractGraphCache(AbstractGraph._defaultClusterSize, _defaultMaxBytes);
+
+    private final LinkedHashMap<Key, Entry> _graphs = new LinkedHashMap<>(16, 0.75f, true);
+    private final GridGenerations _generations = new GridGenerations();
+    private final int _clusterSize;
+    private long _maxBytes;
+    private long _usedBytes;
+    private long _hits;
+    private long _misses;
+    private long _evictions;
+
+    public AbstractGraphCache(int clusterSizeIn) {
+        this(clusterSizeIn, _defaultMaxBytes);
+    }
+
+    public AbstractGraphCache(int clusterSizeIn, long maxBytesIn) {
+        _clusterSize = clusterSizeIn;
+        _maxBytes = maxBytesIn;
+    }
+
+    public static AbstractGraphCache getDefault() {
+        return _default;
+    }
+
+    public AbstractGraph get(Grid grid) {
+        Key key = new Key(grid);
+        Entry entry;
+        long generation = 0;
+        synchronized (this) {
+            entry = _graphs.get(key);
+            if (entry != null)
+                _hits++;
+            else {
+                _misses++;
+                generation = _generations.begin(grid);
+            }
+        }
+        if (entry != null)
+            return refresh(key, entry.graph);
+
+        while (true) {
+            AbstractGraph graph = AbstractGraph.build(grid, _clusterSize);
+            synchronized (this) {
+                if (!_generations.end(grid, generation)) {
+                    generation = _generations.begin(grid);
+                    continue;
+                }
+                Entry raced = _graphs.get(key);
+                if (raced != null)
+                    graph = raced.graph;
+                else
+                    put(key, graph);
+            }
+            return refresh(key, graph);
+        }
+    }
+
+    public AbstractGraph load(Grid grid, Path path) throws IOException {
+        AbstractGraph graph = null;
+        if (Files.exists(path)) {
+            try {
+                graph = AbstractGraph.read(grid, path);
+            } catch (IOException e) {
+                graph = null;
+            }
+        }
+        if (graph == null) {
+            graph = AbstractGraph.build(grid, _clusterSize);
+            graph.write(path);
+        }
+        synchronized (this) {
+            remove(new Key(grid));
+            put(new Key(grid), graph);
+        }
+        return graph;
+    }
+
+    public void onCellChanged(Grid grid, int cell) {
+        Entry entry;
+        synchronized (this) {
+            _generations.advance(grid);
+            entry = _graphs.get(new Key(grid));
+        }
+        if (entry != null)
+            entry.graph.onCellChanged(cell);
+    }
+
+    public synchronized void invalidate(Grid grid) {
+        _generations.advance(grid);
+        remove(new Key(grid));
+    }
+
+    public synchronized void clear() {
+        _graphs.clear();
+        _usedBytes = 0;
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        _maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized long getMaxBytes() {
+        return _maxBytes;
+    }
+
+    public synchronized long getUsedBytes() {
+        return _usedBytes;
+    }
+
+    public synchronized int size() {
+        return _graphs.size();
+    }
+
+    public synchronized long getHits() {
+        return _hits;
+    }
+
+    public synchronized long getMisses() {
+        return _misses;
+    }
+
+    public synchronized long getEvictions() {
+        return _evictions;
+    }
+
+    private AbstractGraph refresh(Key key, AbstractGraph graph) {
+        if (graph.refresh())
+            resize(key, graph, graph.getSizeInBytes());
+        return graph;
+    }
+
+    private synchronized void resize(Key key, AbstractGraph graph, long bytes) {
+        Entry entry = _graphs.get(key);
+        if (entry == null || entry.graph != graph)
+            return;
+        _usedBytes += bytes - entry.bytes;
+        entry.bytes = bytes;
+        if (bytes > _maxBytes)
+            remove(key);
+        else
+            evict();
+    }
+
+    private void put(Key key, AbstractGraph graph) {
+        long bytes = graph.getSizeInBytes();
+        if (bytes > _maxBytes)
+            return;
+        _graphs.put(key, new Entry(graph, bytes));
+        _usedBytes += bytes;
+        evict();
+    }
+
+    private void remove(Key key) {
+        Entry entry = _graphs.remove(key);
+        if (entry != null)
+            _usedBytes -= entry.bytes;
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = _graphs.values().iterator();
+        while (_usedBytes > _maxBytes && eldest.hasNext()) {
+            _usedBytes -= eldest.next().bytes;
+            eldest.remove();
+            _evictions++;
+        }
+    }
+
+    private static final class Entry {
+        final AbstractGraph graph;
+        long bytes;
+
+        Entry(AbstractGraph graphIn, long bytesIn) {
+            graph = graphIn;
+            bytes = bytesIn;
+        }
+    }
+
+    private static final class Key {
+        private final Grid _grid;
+
+        Key(Grid gridIn) {
+            _grid = gridIn;
+        }
+
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other)._grid == _grid;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(_grid);
+        }
+    }
+}
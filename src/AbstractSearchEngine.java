@@ -0,0 +1,31 @@
+abstract class AbstractSearchEngine implements SearchEngine {
+    protected final SearchStats _stats = new SearchStats();
+    protected SearchListener _listener;
+
+    public void setListener(SearchListener listener) {
+        _listener = listener;
+    }
+
+    public final SearchResult search(SearchProblem problem) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        _stats.reset(getClass().getSimpleName());
+        long start = System.nanoTime();
+
+        SearchResult result = PerformSearch(problem);
+
+        _stats.elapsedNanos = System.nanoTime() - start;
+        _stats.pathLength = result.isSolved() ? result.path.length - 1 : -1;
+        _stats.pathCost = result.isSolved() ? SearchResult.getPathCost(problem, result.path) : -1;
+        event.end();
+        if (event.shouldCommit()) {
+            event.record(_stats);
+            event.commit();
+        }
+        if (_listener != null)
+            _listener.onSolveFinished(problem, _stats);
+        return result;
+    }
+
+    protected abstract SearchResult PerformSearch(SearchProblem problem);
+}
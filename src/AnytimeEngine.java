@@ -0,0 +1,215 @@
+import java.util.Arrays;
+
+class AnytimeEngine extends AbstractSearchEngine {
+    static final double _defaultInitialEpsilon = 3.0;
+    static final double _defaultEpsilonStep = 0.5;
+    static final int _epsilonScale = 64;
+    static final int _keyShift = 16;
+    static final int _unreached = Integer.MAX_VALUE;
+
+    private final ExploredIndex _explored = new ExploredIndex();
+    private final ExploredIndex _reached = new ExploredIndex();
+    private final ExploredIndex _closed = new ExploredIndex();
+    private final ExploredIndex _inconsistent = new ExploredIndex();
+    private final double _initialEpsilon;
+    private final double _epsilonStep;
+    private int[] _parent = new int[0];
+    private int[] _successors = new int[0];
+    private int[] _pending = new int[0];
+    private int _pendingCount;
+    private CellHeap _open;
+    private SearchBudget _budget;
+    private int _goal;
+    private int _goalCost;
+    private int _closestState;
+    private double _epsilon;
+    private double _bound;
+    private int _iterations;
+    private boolean _interrupted;
+    private int[] _partialPath;
+
+    public AnytimeEngine() {
+        this(_defaultInitialEpsilon, _defaultEpsilonStep);
+    }
+
+    public AnytimeEngine(double initialEpsilonIn, double epsilonStepIn) {
+        if (initialEpsilonIn < 1 || epsilonStepIn <= 0)
+            throw new IllegalArgumentException("Epsilon must start at 1 or more and shrink by a positive step");
+        _initialEpsilon = initialEpsilonIn;
+        _epsilonStep = epsilonStepIn;
+    }
+
+    public void setBudget(SearchBudget budget) {
+        _budget = budget;
+    }
+
+    public SearchBudget getBudget() {
+        return _budget;
+    }
+
+    public double getBound() {
+        return _bound;
+    }
+
+    public double getEpsilon() {
+        return _epsilon;
+    }
+
+    public int getIterations() {
+        return _iterations;
+    }
+
+    public boolean isInterrupted() {
+        return _interrupted;
+    }
+
+    public int[] getPartialPath() {
+        return _partialPath;
+    }
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        int stateCount = problem.getStateCount();
+        _explored.reset(stateCount);
+        _reached.reset(stateCount);
+        _closed.reset(stateCount);
+        _inconsistent.reset(stateCount);
+        if (_parent.length != stateCount) {
+            _parent = new int[stateCount];
+            _open = new CellHeap(stateCount);
+        }
+        if (_successors.length < problem.getMaxSuccessors())
+            _successors = new int[problem.getMaxSuccessors()];
+        _open.clear();
+        _pendingCount = 0;
+        _goal = -1;
+        _goalCost = _unreached;
+        _epsilon = _initialEpsilon;
+        _bound = Double.POSITIVE_INFINITY;
+        _iterations = 0;
+        _interrupted = false;
+        _partialPath = null;
+
+        int start = problem.getStartState();
+        _reached.mark(start, 0);
+        _parent[start] = -1;
+        _closestState = start;
+        if (problem.isGoalState(start)) {
+            _goal = start;
+            _goalCost = 0;
+        }
+        _open.push(start, getKey(problem, start, 0));
+
+        while (true) {
+            _iterations++;
+            boolean finished = improvePath(problem);
+            _bound = Math.min(_bound, getBound(problem, finished ? _epsilon : Double.POSITIVE_INFINITY));
+            if (!finished) {
+                _interrupted = true;
+                break;
+            }
+            if (_bound <= 1 || _goal == -1)
+                break;
+            if (_budget != null && (_budget.isExhausted() || _budget.isExhausted(_stats.expansions))) {
+                _interrupted = true;
+                break;
+            }
+            _epsilon = Math.max(1, _epsilon - _epsilonStep);
+            reopen(problem);
+        }
+        _open.clear();
+
+        if (_goal == -1) {
+            _partialPath = SearchResult.tracePath(_parent, _closestState);
+            return new SearchResult(null, _explored, _stats);
+        }
+        return new SearchResult(SearchResult.tracePath(_parent, _goal), _explored, _stats);
+    }
+
+    private boolean improvePath(SearchProblem problem) {
+        while (!_open.isEmpty() && (long) _goalCost * _epsilonScale > _open.peekKey() >>> _keyShift) {
+            if (_budget != null && _budget.isExhausted(_stats.expansions))
+                return false;
+
+            int state = _open.poll();
+            int costSoFar = _reached.getDepth(state);
+            _closed.mark(state, costSoFar);
+            _explored.mark(state, costSoFar);
+            _stats.expansions++;
+            if (_listener != null)
+                _listener.onExpand(problem, state, costSoFar);
+            int heuristic = problem.getHeuristic(state);
+            int closest = problem.getHeuristic(_closestState);
+            if (heuristic < closest || (heuristic == closest && costSoFar < _reached.getDepth(_closestState)))
+                _closestState = state;
+
+            int successorCount = problem.getSuccessors(state, _successors);
+            for (int i = 0; i < successorCount; i++) {
+                int child = _successors[i];
+                int childCost = costSoFar + problem.getCost(state, child);
+                _stats.generated++;
+                if (_reached.contains(child) && childCost >= _reached.getDepth(child)) {
+                    _stats.duplicates++;
+                    if (_listener != null)
+                        _listener.onDuplicate(problem, child, childCost);
+                    continue;
+                }
+                if (_listener != null)
+                    _listener.onGenerate(problem, child, childCost);
+                _reached.mark(child, childCost);
+                _parent[child] = state;
+                if (childCost < _goalCost && problem.isGoalState(child)) {
+                    _goal = child;
+                    _goalCost = childCost;
+                }
+                if (!_closed.contains(child))
+                    _open.push(child, getKey(problem, child, childCost));
+                else if (!_inconsistent.contains(child)) {
+                    _inconsistent.mark(child, childCost);
+                    addPending(child);
+                }
+            }
+            _stats.updateFrontier(_open.size() + _pendingCount);
+        }
+        return true;
+    }
+
+    private double getBound(SearchProblem problem, double epsilon) {
+        if (_goal == -1)
+            return Double.POSITIVE_INFINITY;
+        long lowest = Long.MAX_VALUE;
+        for (int i = 0; i < _open.size(); i++)
+            lowest = Math.min(lowest, getLowerBound(problem, _open.get(i)));
+        for (int i = 0; i < _pendingCount; i++)
+            lowest = Math.min(lowest, getLowerBound(problem, _pending[i]));
+        if (lowest >= _goalCost)
+            return 1;
+        return Math.min(epsilon, (double) _goalCost / lowest);
+    }
+
+    private long getLowerBound(SearchProblem problem, int state) {
+        return (long) _reached.getDepth(state) + problem.getHeuristic(state);
+    }
+
+    private void reopen(SearchProblem problem) {
+        for (int i = 0; i < _open.size(); i++)
+            addPending(_open.get(i));
+        _open.clear();
+        for (int i = 0; i < _pendingCount; i++)
+            _open.push(_pending[i], getKey(problem, _pending[i], _reached.getDepth(_pending[i])));
+        _pendingCount = 0;
+        _closed.reset(_closed.getStateCount());
+        _inconsistent.reset(_inconsistent.getStateCount());
+    }
+
+    private void addPending(int state) {
+        if (_pendingCount == _pending.length)
+            _pending = Arrays.copyOf(_pending, Math.max(64, _pendingCount * 2));
+        _pending[_pendingCount++] = state;
+    }
+
+    private long getKey(SearchProblem problem, int state, int costSoFar) {
+        int heuristic = problem.getHeuristic(state);
+        long inflated = (long) costSoFar * _epsilonScale + Math.round(_epsilon * _epsilonScale) * heuristic;
+        return (inflated << _keyShift) | Math.min(heuristic, (1 << _keyShift) - 1);
+    }
+}
@@ -0,0 +1,55 @@
+class ArrayGrid implements Grid {
+    private final int[][] _cells;
+    private int _startCell;
+    private int _goalCell;
+
+    public ArrayGrid(int[][] cellsIn) {
+        _cells = cellsIn;
+        _startCell = findMarker(AutonomousVehicleNavigator._startMarker);
+        _goalCell = findMarker(AutonomousVehicleNavigator._goalMarker);
+    }
+
+    public int[][] getCells() {
+        return _cells;
+    }
+
+    public int getWidth() {
+        return _cells[0].length;
+    }
+
+    public int getHeight() {
+        return _cells.length;
+    }
+
+    public int getMarker(int cell) {
+        return _cells[cell / _cells[0].length][cell % _cells[0].length];
+    }
+
+    public void setMarker(int cell, int marker) {
+        if (cell == _startCell)
+            _startCell = -1;
+        if (cell == _goalCell)
+            _goalCell = -1;
+        _cells[cell / _cells[0].length][cell % _cells[0].length] = marker;
+        if (marker == AutonomousVehicleNavigator._startMarker)
+            _startCell = cell;
+        else if (marker == AutonomousVehicleNavigator._goalMarker)
+            _goalCell = cell;
+    }
+
+    public int getStartCell() {
+        return _startCell;
+    }
+
+    public int getGoalCell() {
+        return _goalCell;
+    }
+
+    private int findMarker(int marker) {
+        for (int y = 0; y < _cells.length; y++)
+            for (int x = 0; x < _cells[y].length; x++)
+                if (_cells[y][x] == marker)
+                    return toCell(x, y);
+        return -1;
+    }
+}
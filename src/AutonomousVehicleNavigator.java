@@ -1,202 +1,408 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Random;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 public class AutonomousVehicleNavigator {
 
-    private final int[][] _grid;
+    private final Grid _grid;
     private final int _gridId;
-    public ArrayList<SearchNode> exploredSet;
-    private ArrayList<SearchNode> _solution;
-    private final GridState _startingState;
+    private final GridProblem _problem;
+    private WeightedGridProblem _weightedProblem;
+    private final EnumMap<SearchMode, SearchEngine> _engines;
+    private ExploredIndex _explored;
+    private int _exploredCount;
+    private long _expansions;
+    private IncrementalPlanner _planner;
+    private MultiAgentPlanner _fleetPlanner;
+    private SearchListener _listener;
     static final int _jammedMarker = 1;
     static final int _goalMarker = 3;
     static final int _startMarker = 2;
     static final int _clearMarker = 0;
+    static final int _maxDepth = 100;
 
     public AutonomousVehicleNavigator(int gridId) {
+        this(gridId, true);
+    }
+
+    public AutonomousVehicleNavigator(int gridId, boolean trace) {
+        this(GridFactory.getGrid(gridId), gridId, trace);
+    }
+
+    public AutonomousVehicleNavigator(int[][] grid, boolean trace) {
+        this(new ArrayGrid(grid), -1, trace);
+    }
+
+    public AutonomousVehicleNavigator(Grid grid, boolean trace) {
+        this(grid, -1, trace);
+    }
+
+    private AutonomousVehicleNavigator(Grid grid, int gridId, boolean trace) {
         _gridId = gridId;
-        _grid = GridFactory.getGrid(gridId);
-        exploredSet = new ArrayList<>();
-        _startingState = GridFactory.getStartingState(gridId);
+        _grid = grid;
+        _listener = trace ? new ConsoleTraceListener() : null;
+        _problem = new GridProblem(grid);
+        _engines = new EnumMap<>(SearchMode.class);
+        _explored = new ExploredIndex();
     }
 
     public ArrayList<SearchNode> Solve() {
-        for (int depthLimit = 0; depthLimit < 100; depthLimit++) {
-            _solution = new ArrayList<>();
-            exploredSet = new ArrayList<>();
-            SearchStatus result = PerformDepthLimitedSearch(new SearchNode(_startingState, 0), depthLimit);
-            if (result == SearchStatus.Solution)
-                return _solution;
+        return Solve(SearchMode.IterativeDeepening);
+    }
+
+    public ArrayList<SearchNode> Solve(SearchMode mode) {
+        checkTerrain(mode);
+        if (_problem.getStartState() == -1)
+            return null;
+
+        int[] path = search(mode);
+        return path == null ? null : toNodes(path);
+    }
+
+    private int[] search(SearchMode mode) {
+        if (mode == SearchMode.Incremental) {
+            if (_planner == null)
+                _planner = new IncrementalPlanner(_grid, _problem.getStartState(), _problem.getGoalState());
+            int[] path = _planner.plan();
+            _explored = _planner.getExplored();
+            _exploredCount = _explored.size();
+            _expansions = _planner.getExpandedCount();
+            return path;
         }
-        return null;
+        SearchProblem problem = _weightedProblem != null ? _weightedProblem : _problem;
+        SearchResult result = _engines.computeIfAbsent(mode, key -> createEngine(key, _listener)).search(problem);
+        _explored = result.explored != null ? result.explored : new ExploredIndex();
+        _exploredCount = result.explored != null ? result.explored.size() : (int) result.stats.expansions;
+        _expansions = result.stats.expansions;
+        return result.path;
     }
 
-    private SearchStatus PerformDepthLimitedSearch(SearchNode startNode, int depthLimit) {
-        String indent = " ".repeat(startNode.depth);
-        boolean hasCutOff = false;
+    private ArrayList<SearchNode> toNodes(int[] path) {
+        ArrayList<SearchNode> solution = new ArrayList<>(path.length);
+        long cost = 0;
+        for (int depth = 0; depth < path.length; depth++) {
+            if (depth > 0)
+                cost += getCost(path[depth - 1], path[depth]);
+            solution.add(createNode(path[depth], depth, cost));
+        }
+        return solution;
+    }
 
-        _solution.add(startNode);
-        System.out.println(indent + "Starting expanding from " + startNode.toString());
+    private int getCost(int from, int to) {
+        return _weightedProblem != null ? _weightedProblem.getCost(from, to) : _problem.getCost(from, to);
+    }
 
-        if (isGoalState(startNode.gridState)) {
-            return SearchStatus.Solution;
+    /**
+     * Only AStar, UniformCost and Anytime searches (and SolveWithin) use terrain costs; every other mode,
+     * SolveFleet and StreamPath throw IllegalArgumentException while terrain is set.
+     */
+    public void setTerrain(TerrainCosts terrain, boolean diagonal) {
+        _weightedProblem = terrain == null ? null : new WeightedGridProblem(_grid, terrain, diagonal);
+    }
+
+    public WeightedGridProblem getWeightedProblem() {
+        return _weightedProblem;
+    }
+
+    private void checkTerrain(SearchMode mode) {
+        if (_weightedProblem != null && !mode.honoursTerrain())
+            throw new IllegalArgumentException(mode + " search ignores terrain costs; use " + SearchMode._terrainModes
+                    + " or clear the terrain");
+    }
+
+    public ArrayList<SearchNode> SolveWithin(SearchBudget budget) {
+        AnytimeEngine engine = getAnytimeEngine();
+        engine.setBudget(budget);
+        try {
+            return Solve(SearchMode.Anytime);
         }
-        if (depthLimit == 0) {
-            System.out.println(indent + "CutOff: " + startNode.toString());
-            return SearchStatus.CutOff;
+        finally {
+            engine.setBudget(null);
         }
+    }
 
-        exploredSet.add(startNode);
+    public double getSuboptimalityBound() {
+        return getAnytimeEngine().getBound();
+    }
 
-        for (MapDirection direction : startNode.gridState.getActions(GridFactory.getGridSize(_gridId))) {
-            SearchNode child = new SearchNode(GridFactory.getNewGridState(_gridId, startNode.gridState, direction),
-                    startNode.depth + 1);
-            System.out.println(indent + "Direction: " + direction.toString() + " - Checking " + child.toString());
+    public ArrayList<SearchNode> getPartialPath() {
+        int[] path = getAnytimeEngine().getPartialPath();
+        return path == null ? null : toNodes(path);
+    }
 
-            if (isGoalState(child.gridState)) {
-                _solution.add(child);
-                return SearchStatus.Solution;
-            }
-            if (isJammed(child.gridState)) {
-                System.out.println(indent + "This node is jammed.");
-                continue;
-            }
+    private AnytimeEngine getAnytimeEngine() {
+        return (AnytimeEngine) _engines.computeIfAbsent(SearchMode.Anytime, key -> createEngine(key, _listener));
+    }
 
-            SearchNode inExplored = exploredSet.stream().filter(node -> node.gridState.posX == child.gridState.posX
-                    && node.gridState.posY == child.gridState.posY).findAny().orElse(null);
-            if (inExplored != null) {
-                if (inExplored.depth > child.depth) {
-                    exploredSet.remove(inExplored);
-                    System.out.println(indent + "This node was explored at a smaller depth; revisiting.");
-                }
-                else {
-                    System.out.println(indent + "This node is already explored");
-                    continue;
-                }
-            }
+    public int[][] SolveFleet(int[] startCells, int[] goalCells, SearchBudget budget) {
+        if (_weightedProblem != null)
+            throw new IllegalArgumentException("Fleet planning ignores terrain costs; clear the terrain first");
+        if (_fleetPlanner == null)
+            _fleetPlanner = new MultiAgentPlanner(_grid);
+        return _fleetPlanner.plan(startCells, goalCells, budget);
+    }
 
-            System.out.println(indent + "This node is clear.");
-            System.out.println(indent + "Moving to " + child.toString());
-            SearchStatus childStatus = PerformDepthLimitedSearch(child, depthLimit - 1);
+    public MultiAgentPlanner getFleetPlanner() {
+        return _fleetPlanner;
+    }
 
-            if (childStatus == SearchStatus.CutOff) {
-                hasCutOff = true;
-                _solution.remove(child);
-            }
-            if (childStatus == SearchStatus.Solution)
-                return childStatus;
+    public PackedPath SolvePacked(SearchMode mode) {
+        checkTerrain(mode);
+        if (_problem.getStartState() == -1)
+            return null;
 
-            _solution.remove(child);
+        if (mode == SearchMode.DistanceField) {
+            if (_problem.getGoalState() == -1)
+                return null;
+            _explored = new ExploredIndex();
+            _exploredCount = 0;
+            _expansions = 0;
+            return DistanceFieldCache.getDefault().get(_grid, _problem.getGoalState()).getPackedPath(_problem.getStartState());
         }
 
-        if (hasCutOff)
-            return SearchStatus.CutOff;
+        int[] path = search(mode);
+        return path == null ? null : PackedPath.fromCells(path, _grid.getWidth());
+    }
+
+    public PrimitiveIterator.OfInt StreamPath() {
+        checkTerrain(SearchMode.DistanceField);
+        if (_problem.getStartState() == -1 || _problem.getGoalState() == -1)
+            return null;
+        DistanceField field = DistanceFieldCache.getDefault().get(_grid, _problem.getGoalState());
+        return field.isReachable(_problem.getStartState()) ? field.iteratePath(_problem.getStartState()) : null;
+    }
+
+    public void setListener(SearchListener listener) {
+        _listener = listener;
+        for (SearchEngine engine : _engines.values())
+            engine.setListener(listener);
+    }
+
+    public SearchListener getListener() {
+        return _listener;
+    }
+
+    public void markJammed(int x, int y) {
+        setMarker(_grid.toCell(x, y), _jammedMarker);
+    }
+
+    public void markClear(int x, int y) {
+        setMarker(_grid.toCell(x, y), _clearMarker);
+    }
+
+    private void setMarker(int cell, int marker) {
+        _grid.setMarker(cell, marker);
+        DistanceFieldCache.getDefault().invalidate(_grid);
+        AbstractGraphCache.getDefault().onCellChanged(_grid, cell);
+        if (_planner != null)
+            _planner.onCellChanged(cell);
+    }
+
+    public Grid getGrid() {
+        return _grid;
+    }
+
+    public GridProblem getProblem() {
+        return _problem;
+    }
 
-        return SearchStatus.Failure;
+    public ExploredIndex getExplored() {
+        return _explored;
     }
 
     public int getExploredCount() {
-        return exploredSet.size();
+        return _exploredCount;
+    }
+
+    public long getExpansions() {
+        return _expansions;
+    }
+
+    public ArrayList<SearchNode> getExploredSet() {
+        ArrayList<SearchNode> explored = new ArrayList<>(_explored.size());
+        for (int cell = 0; cell < _explored.getStateCount(); cell++)
+            if (_explored.contains(cell))
+                explored.add(createNode(cell, _explored.getDepth(cell), _explored.getDepth(cell)));
+        return explored;
     }
 
-    private boolean isJammed(GridState state) {
-        return _grid[state.posY][state.posX] == _jammedMarker;
+    private SearchNode createNode(int cell, int depth, long cost) {
+        return new SearchNode(new GridState(_problem.getY(cell), _problem.getX(cell), _problem.getMarker(cell)), depth, cost);
     }
 
-    private boolean isGoalState(GridState state) {
-        return _grid[state.posY][state.posX] == _goalMarker;
+    static SearchEngine createEngine(SearchMode mode, SearchListener listener) {
+        SearchEngine engine = createEngine(mode);
+        engine.setListener(listener);
+        return engine;
+    }
+
+    static SearchEngine createEngine(SearchMode mode) {
+        switch (mode) {
+            case BreadthFirst:
+                return new BreadthFirstEngine();
+            case ParallelBreadthFirst:
+                return new ParallelBreadthFirstEngine();
+            case AStar:
+                return new AStarEngine();
+            case UniformCost:
+                return new AStarEngine(false);
+            case Bidirectional:
+                return new BidirectionalEngine();
+            case DistanceField:
+                return new DistanceFieldEngine(DistanceFieldCache.getDefault());
+            case JumpPoint:
+                return new JumpPointEngine();
+            case Hierarchical:
+                return new HierarchicalEngine(AbstractGraphCache.getDefault());
+            case Anytime:
+                return new AnytimeEngine();
+            case Incremental:
+                throw new IllegalArgumentException("Incremental planning keeps state per grid; use IncrementalPlanner");
+        }
+        return new IterativeDeepeningEngine(_maxDepth);
     }
 
     static class GridFactory {
         static final double _randomGridJammedRatio = 0.25;
         static final int _randomGridWidth = 50;
         static final int _randomGridHeight = 50;
+        static final int _jammedThresholdBits = 16;
 
-        static int[][] _randomGrid;
-
-        public static int[][] getGrid(int gridId) {
+        public static Grid getGrid(int gridId) {
             switch (gridId) {
-                case 0:
-                    if (_randomGrid == null)
-                        _randomGrid = randomizeGrid();
-                    return _randomGrid;
-                case 1: return grid1;
-                case 2: return grid2;
-                case 3: return grid3;
-                case 4: return grid4;
-                case 5: return grid5;
-                case 6: return grid6;
+                case 0: return randomizeGrid();
+                case 1: return new ArrayGrid(copyGrid(grid1));
+                case 2: return new ArrayGrid(copyGrid(grid2));
+                case 3: return new ArrayGrid(copyGrid(grid3));
+                case 4: return new ArrayGrid(copyGrid(grid4));
+                case 5: return new ArrayGrid(copyGrid(grid5));
+                case 6: return new ArrayGrid(copyGrid(grid6));
             }
             return null;
         }
 
-        static int[][] randomizeGrid() {
-            int[][] result = new int[_randomGridHeight][_randomGridWidth];
-            Random random = new Random(new Random().nextInt());
+        static int[][] copyGrid(int[][] grid) {
+            int[][] result = new int[grid.length][];
+            for (int y = 0; y < grid.length; y++)
+                result[y] = grid[y].clone();
+            return result;
+        }
+
+        static ByteGrid randomizeGrid() {
+            return randomizeGrid(_randomGridWidth, _randomGridHeight, _randomGridJammedRatio, new SplittableRandom().nextLong());
+        }
 
-            for (int y = 0; y < result.length; y++)
-                for (int x = 0; x < result[y].length; x++)
-                    if (random.nextDouble() < _randomGridJammedRatio)
-                        result[y][x] = _jammedMarker;
-                    else
-                        result[y][x] = _clearMarker;
+        static ByteGrid randomizeGrid(int width, int height, double jammedRatio, long seed) {
+            ByteGrid result = new ByteGrid(width, height);
+            byte[] cells = result.getCells();
+            int threshold = (int) Math.round(jammedRatio * (1 << _jammedThresholdBits));
+
+            SplittableRandom random = new SplittableRandom(seed);
+            SplittableRandom[] rowRandoms = new SplittableRandom[height];
+            for (int y = 0; y < height; y++)
+                rowRandoms[y] = random.split();
+
+            IntStream.range(0, height).parallel().forEach(y -> {
+                SplittableRandom rowRandom = rowRandoms[y];
+                int rowStart = y * width;
+                long bits = 0;
+                for (int x = 0; x < width; x++) {
+                    if ((x & 3) == 0)
+                        bits = rowRandom.nextLong();
+                    int sample = (int) (bits & 0xFFFF);
+                    bits >>>= _jammedThresholdBits;
+                    cells[rowStart + x] = (byte) (sample < threshold ? _jammedMarker : _clearMarker);
+                }
+            });
 
-            result[random.nextInt(_randomGridHeight)][random.nextInt(_randomGridWidth)] = _startMarker;
-            result[random.nextInt(_randomGridHeight)][random.nextInt(_randomGridWidth)] = _goalMarker;
+            int cellCount = result.getCellCount();
+            int startCell = random.nextInt(cellCount);
+            int goalCell = startCell;
+            while (goalCell == startCell && cellCount > 1)
+                goalCell = random.nextInt(cellCount);
 
+            result.setMarker(startCell, _startMarker);
+            if (goalCell != startCell)
+                result.setMarker(goalCell, _goalMarker);
             return result;
         }
 
-        static GridState getStartingState(int gridId) {
-            int[][] grid = getGrid(gridId);
-            assert grid != null;
-
-            for (int y = 0; y < grid.length; y++)
-                for (int x = 0; x < grid[y].length; x++)
-                    if (grid[y][x] == _startMarker)
-                        return new GridState(y, x, grid[y][x]);
-
-            return null;
+        static Grid loadGrid(Path path) throws IOException {
+            if (path.getFileName().toString().endsWith(".txt"))
+                return loadTextGrid(path);
+            return MappedGrid.open(path);
         }
 
-        static int[] getGridSize(int gridId) {
-            int[][] grid = getGrid(gridId);
-            assert grid != null;
-            return new int[] {grid.length - 1, grid[0].length - 1};
+        static ArrayGrid loadTextGrid(Path path) throws IOException {
+            return parseTextGrid(Files.readString(path));
         }
 
-        static GridState getNewGridState(int gridId, GridState gridState, MapDirection direction) {
-            int[][] grid = getGrid(gridId);
-            assert grid != null;
+        static ArrayGrid parseTextGrid(String text) {
+            ArrayList<int[]> rows = new ArrayList<>();
+            for (String line : text.split("\\R")) {
+                String trimmed = line.trim();
+                if (trimmed.startsWith("#") || trimmed.startsWith("//"))
+                    continue;
+                String[] tokens = trimmed.replaceAll("[{},;]", " ").trim().split("\\s+");
+                if (tokens[0].isEmpty())
+                    continue;
 
-            switch(direction) {
-                case North:
-                    return new GridState(gridState.posY - 1, gridState.posX, grid[gridState.posY - 1][gridState.posX]);
-                case East:
-                    return new GridState(gridState.posY, gridState.posX + 1, grid[gridState.posY][gridState.posX + 1]);
-                case South:
-                    return new GridState(gridState.posY + 1, gridState.posX, grid[gridState.posY + 1][gridState.posX]);
-                case West:
-                    return new GridState(gridState.posY, gridState.posX - 1, grid[gridState.posY][gridState.posX - 1]);
+                int[] row = new int[tokens.length];
+                for (int x = 0; x < tokens.length; x++) {
+                    if (!tokens[x].matches("[0-3]"))
+                        throw new IllegalArgumentException("Invalid cell '" + tokens[x] + "' in row " + rows.size());
+                    row[x] = tokens[x].charAt(0) - '0';
+                }
+                if (!rows.isEmpty() && row.length != rows.get(0).length)
+                    throw new IllegalArgumentException("Row " + rows.size() + " has " + row.length
+                            + " cells, expected " + rows.get(0).length);
+                rows.add(row);
             }
 
-            return null;
+            if (rows.isEmpty())
+                throw new IllegalArgumentException("Grid text contains no rows");
+            return new ArrayGrid(rows.toArray(new int[0][]));
+        }
+
+        static void writeTextGrid(Grid grid, Path path) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+                for (int y = 0; y < grid.getHeight(); y++) {
+                    for (int x = 0; x < grid.getWidth(); x++) {
+                        if (x > 0)
+                            writer.write(' ');
+                        writer.write('0' + grid.getMarker(x, y));
+                    }
+                    writer.newLine();
+                }
+            }
+        }
+
+        static int[][] toArray(Grid grid) {
+            int[][] result = new int[grid.getHeight()][grid.getWidth()];
+            for (int y = 0; y < result.length; y++)
+                for (int x = 0; x < result[y].length; x++)
+                    result[y][x] = grid.getMarker(x, y);
+            return result;
         }
 
-        static String GetMapAtState(SearchNode[] nodes, int gridId, List<SearchNode> exploredNodes) {
+        static String GetMapAtState(SearchNode[] nodes, Grid grid, List<SearchNode> exploredNodes) {
             if (exploredNodes == null)
                 exploredNodes = new ArrayList<>();
 
-            int[][] grid = getGrid(gridId);
             assert grid != null;
-            String[][] strGrid = new String[grid.length][grid[0].length];
+            String[][] strGrid = new String[grid.getHeight()][grid.getWidth()];
 
-            for (int y = 0; y < grid.length; y++)
-                for (int x = 0; x < grid[y].length; x++)
-                    strGrid[y][x] = String.valueOf(grid[y][x]);
+            for (int y = 0; y < grid.getHeight(); y++)
+                for (int x = 0; x < grid.getWidth(); x++)
+                    strGrid[y][x] = String.valueOf(grid.getMarker(x, y));
 
             for (SearchNode node : exploredNodes) {
                 strGrid[node.gridState.posY][node.gridState.posX] = "+";
@@ -325,14 +531,20 @@ public class AutonomousVehicleNavigator {
 class SearchNode {
     public GridState gridState;
     int depth;
+    long cost;
 
     public SearchNode(GridState gridStateIn, int depthIn) {
+        this(gridStateIn, depthIn, depthIn);
+    }
+
+    public SearchNode(GridState gridStateIn, int depthIn, long costIn) {
         gridState = gridStateIn;
         depth = depthIn;
+        cost = costIn;
     }
 
     public String toString() {
-        return "(" + gridState.posY + "," + gridState.posX + "," + depth + ")";
+        return "(" + gridState.posY + "," + gridState.posX + "," + depth + "," + cost + ")";
     }
 }
 
@@ -346,16 +558,6 @@ class GridState {
         posY = posYIn;
         stateStatus = stateStatusIn;
     }
-
-    public ArrayList<MapDirection> getActions(int[] gridSize) {
-        ArrayList<MapDirection> actions = new ArrayList<>();
-        if (posY > 0) actions.add(MapDirection.North);
-        if (posX > 0) actions.add(MapDirection.West);
-        if (posY < gridSize[0]) actions.add(MapDirection.South);
-        if (posX < gridSize[1]) actions.add(MapDirection.East);
-        Collections.shuffle(actions);
-        return actions;
-    }
 }
 
 enum SearchStatus {
@@ -364,10 +566,53 @@ enum SearchStatus {
     Failure
 }
 
+enum SearchMode {
+    IterativeDeepening,
+    BreadthFirst,
+    ParallelBreadthFirst,
+    AStar,
+    UniformCost,
+    Bidirectional,
+    DistanceField,
+    JumpPoint,
+    Hierarchical,
+    Anytime,
+    Incremental;
+
+    static final String _terrainModes = "AStar, UniformCost or Anytime";
+
+    boolean honoursTerrain() {
+        return this == AStar || this == UniformCost || this == Anytime;
+    }
+}
+
 enum MapDirection {
-    North,
-    East,
-    South,
-    West
+    North(0, -1),
+    East(1, 0),
+    South(0, 1),
+    West(-1, 0),
+    NorthEast(1, -1),
+    SouthEast(1, 1),
+    SouthWest(-1, 1),
+    NorthWest(-1, -1);
+
+    static final MapDirection[] _values = {North, East, South, West};
+    static final MapDirection[] _all = values();
+
+    final int dx;
+    final int dy;
+
+    MapDirection(int dxIn, int dyIn) {
+        dx = dxIn;
+        dy = dyIn;
+    }
+
+    MapDirection opposite() {
+        return _all[(ordinal() & 4) | ((ordinal() + 2) & 3)];
+    }
+
+    boolean isDiagonal() {
+        return dx != 0 && dy != 0;
+    }
 }
 
@@ -0,0 +1,132 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class BatchNavigator {
+    private final Grid _grid;
+    private final SearchMode _mode;
+    private final ForkJoinPool _pool;
+    private final ThreadLocal<SearchEngine> _engines;
+    private volatile SearchListener _listener;
+    private volatile TerrainCosts _terrain;
+    private volatile boolean _diagonal;
+
+    public BatchNavigator(Grid gridIn, SearchMode modeIn) {
+        this(gridIn, modeIn, ForkJoinPool.commonPool());
+    }
+
+    public BatchNavigator(Grid gridIn, SearchMode modeIn, ForkJoinPool poolIn) {
+        _grid = gridIn;
+        _mode = modeIn;
+        _pool = poolIn;
+        _engines = ThreadLocal.withInitial(() -> AutonomousVehicleNavigator.createEngine(modeIn));
+    }
+
+    public Grid getGrid() {
+        return _grid;
+    }
+
+    public void setListener(SearchListener listener) {
+        _listener = listener;
+    }
+
+    public void setTerrain(TerrainCosts terrain, boolean diagonal) {
+        if (terrain != null && !_mode.honoursTerrain())
+            throw new IllegalArgumentException(_mode + " search ignores terrain costs; use " + SearchMode._terrainModes);
+        if (terrain != null && (terrain.getWidth() != _grid.getWidth() || terrain.getHeight() != _grid.getHeight()))
+            throw new IllegalArgumentException("Terrain is " + terrain.getWidth() + "x" + terrain.getHeight()
+                    + " but grid is " + _grid.getWidth() + "x" + _grid.getHeight());
+        _diagonal = diagonal;
+        _terrain = terrain;
+    }
+
+    public TerrainCosts getTerrain() {
+        return _terrain;
+    }
+
+    public Stream<RouteResult> Solve(int[] startCells, int[] goalCells) {
+        if (startCells.length != goalCells.length)
+            throw new IllegalArgumentException("Got " + startCells.length + " start cells but " + goalCells.length + " goal cells");
+
+        int queryCount = startCells.length;
+        LinkedBlockingQueue<RouteResult> completed = new LinkedBlockingQueue<>();
+        for (int i = 0; i < queryCount; i++) {
+            int query = i;
+            _pool.execute(() -> {
+                try {
+                    completed.add(SolveQuery(query, startCells[query], goalCells[query]));
+                } catch (Error e) {
+                    completed.add(new RouteResult(query, startCells[query], goalCells[query], null, 0, e));
+                    throw e;
+                }
+            });
+        }
+
+        Iterator<RouteResult> results = new Iterator<>() {
+            private int _remaining = queryCount;
+
+            public boolean hasNext() {
+                return _remaining > 0;
+            }
+
+            public RouteResult next() {
+                if (_remaining == 0)
+                    throw new NoSuchElementException();
+                try {
+                    RouteResult result = completed.take();
+                    _remaining--;
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while waiting for route results");
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(results, queryCount,
+                Spliterator.SIZED | Spliterator.NONNULL), false);
+    }
+
+    public RouteResult SolveQuery(int query, int startCell, int goalCell) {
+        try {
+            SearchEngine engine = _engines.get();
+            engine.setListener(_listener);
+            TerrainCosts terrain = _terrain;
+            SearchProblem problem = terrain == null ? new GridProblem(_grid, startCell, goalCell)
+                    : new WeightedGridProblem(_grid, terrain, _diagonal, startCell, goalCell);
+            SearchResult result = engine.search(problem);
+            int exploredCount = result.explored != null ? result.explored.size() : (int) result.stats.expansions;
+            return new RouteResult(query, startCell, goalCell, result.path, exploredCount, null);
+        } catch (RuntimeException e) {
+            return new RouteResult(query, startCell, goalCell, null, 0, e);
+        }
+    }
+}
+
+class RouteResult {
+    public final int query;
+    public final int startCell;
+    public final int goalCell;
+    public final int[] path;
+    public final int exploredCount;
+    public final Throwable failure;
+
+    public RouteResult(int queryIn, int startCellIn, int goalCellIn, int[] pathIn, int exploredCountIn,
+                       Throwable failureIn) {
+        query = queryIn;
+        startCell = startCellIn;
+        goalCell = goalCellIn;
+        path = pathIn;
+        exploredCount = exploredCountIn;
+        failure = failureIn;
+    }
+
+    public boolean isSolved() {
+        return path != null;
+    }
+}
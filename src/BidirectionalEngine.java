@@ -0,0 +1,102 @@
+import java.util.Arrays;
+
+class BidirectionalEngine extends AbstractSearchEngine {
+    private final ExploredIndex _explored = new ExploredIndex();
+    private final ExploredIndex _forwardDepth = new ExploredIndex();
+    private final ExploredIndex _backwardDepth = new ExploredIndex();
+    private int[] _forwardParent = new int[0];
+    private int[] _backwardParent = new int[0];
+    private int[] _forwardQueue = new int[0];
+    private int[] _backwardQueue = new int[0];
+    private int[] _neighbors = new int[0];
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        int stateCount = problem.getStateCount();
+        int start = problem.getStartState();
+        int goal = problem.getGoalState();
+        if (goal == -1)
+            throw new IllegalArgumentException("Bidirectional search needs a single goal state");
+
+        _explored.reset(stateCount);
+        _forwardDepth.reset(stateCount);
+        _backwardDepth.reset(stateCount);
+        if (_forwardParent.length != stateCount) {
+            _forwardParent = new int[stateCount];
+            _backwardParent = new int[stateCount];
+            _forwardQueue = new int[stateCount];
+            _backwardQueue = new int[stateCount];
+        }
+        if (_neighbors.length < problem.getMaxSuccessors())
+            _neighbors = new int[problem.getMaxSuccessors()];
+        _forwardDepth.mark(start, 0);
+        _forwardParent[start] = -1;
+        _forwardQueue[0] = start;
+        _backwardDepth.mark(goal, 0);
+        _backwardParent[goal] = -1;
+        _backwardQueue[0] = goal;
+        int forwardHead = 0, forwardTail = 1;
+        int backwardHead = 0, backwardTail = 1;
+        int meetingState = start == goal ? start : -1;
+        int bestLength = meetingState == -1 ? Integer.MAX_VALUE : 0;
+
+        while (meetingState == -1 && forwardHead < forwardTail && backwardHead < backwardTail) {
+            boolean expandForward = forwardTail - forwardHead <= backwardTail - backwardHead;
+            int[] queue = expandForward ? _forwardQueue : _backwardQueue;
+            ExploredIndex depth = expandForward ? _forwardDepth : _backwardDepth;
+            int[] parent = expandForward ? _forwardParent : _backwardParent;
+            ExploredIndex otherDepth = expandForward ? _backwardDepth : _forwardDepth;
+            int head = expandForward ? forwardHead : backwardHead;
+            int tail = expandForward ? forwardTail : backwardTail;
+
+            int layerEnd = tail;
+            for (; head < layerEnd; head++) {
+                int state = queue[head];
+                int childDepth = depth.getDepth(state) + 1;
+                _explored.mark(state, childDepth - 1);
+                _stats.expansions++;
+                if (_listener != null)
+                    _listener.onExpand(problem, state, childDepth - 1);
+                int neighborCount = expandForward
+                        ? problem.getSuccessors(state, _neighbors)
+                        : problem.getPredecessors(state, _neighbors);
+                for (int i = 0; i < neighborCount; i++) {
+                    int child = _neighbors[i];
+                    _stats.generated++;
+                    if (depth.contains(child)) {
+                        _stats.duplicates++;
+                        continue;
+                    }
+                    if (_listener != null)
+                        _listener.onGenerate(problem, child, childDepth);
+                    depth.mark(child, childDepth);
+                    parent[child] = state;
+                    queue[tail++] = child;
+                    if (otherDepth.contains(child) && childDepth + otherDepth.getDepth(child) < bestLength) {
+                        bestLength = childDepth + otherDepth.getDepth(child);
+                        meetingState = child;
+                    }
+                }
+            }
+
+            if (expandForward) {
+                forwardHead = head;
+                forwardTail = tail;
+            }
+            else {
+                backwardHead = head;
+                backwardTail = tail;
+            }
+            _stats.updateFrontier(forwardTail - forwardHead + backwardTail - backwardHead);
+        }
+
+        if (meetingState == -1)
+            return new SearchResult(null, _explored, _stats);
+
+        int[] forwardPath = SearchResult.tracePath(_forwardParent, meetingState);
+        int[] path = Arrays.copyOf(forwardPath, bestLength + 1);
+        int i = forwardPath.length;
+        for (int state = _backwardParent[meetingState]; state != -1; state = _backwardParent[state])
+            path[i++] = state;
+        return new SearchResult(path, _explored, _stats);
+    }
+}
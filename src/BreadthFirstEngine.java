@@ -0,0 +1,53 @@
+class BreadthFirstEngine extends AbstractSearchEngine {
+    private final ExploredIndex _explored = new ExploredIndex();
+    private int[] _queue = new int[0];
+    private int[] _parent = new int[0];
+    private int[] _successors = new int[0];
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        int stateCount = problem.getStateCount();
+        _explored.reset(stateCount);
+        if (_queue.length != stateCount) {
+            _queue = new int[stateCount];
+            _parent = new int[stateCount];
+        }
+        if (_successors.length < problem.getMaxSuccessors())
+            _successors = new int[problem.getMaxSuccessors()];
+
+        int start = problem.getStartState();
+        _parent[start] = -1;
+        _explored.mark(start, 0);
+        if (problem.isGoalState(start))
+            return new SearchResult(new int[] {start}, _explored, _stats);
+
+        int head = 0, tail = 0;
+        _queue[tail++] = start;
+        while (head < tail) {
+            int state = _queue[head++];
+            int depth = _explored.getDepth(state);
+            _stats.expansions++;
+            if (_listener != null)
+                _listener.onExpand(problem, state, depth);
+
+            int successorCount = problem.getSuccessors(state, _successors);
+            for (int i = 0; i < successorCount; i++) {
+                int child = _successors[i];
+                _stats.generated++;
+                if (_explored.contains(child)) {
+                    _stats.duplicates++;
+                    continue;
+                }
+                if (_listener != null)
+                    _listener.onGenerate(problem, child, depth + 1);
+
+                _parent[child] = state;
+                _explored.mark(child, depth + 1);
+                if (problem.isGoalState(child))
+                    return new SearchResult(SearchResult.tracePath(_parent, child), _explored, _stats);
+                _queue[tail++] = child;
+            }
+            _stats.updateFrontier(tail - head);
+        }
+        return new SearchResult(null, _explored, _stats);
+    }
+}
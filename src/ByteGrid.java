@@ -0,0 +1,53 @@
+class ByteGrid implements Grid {
+    private final byte[] _cells;
+    private final int _width;
+    private final int _height;
+    private int _startCell;
+    private int _goalCell;
+
+    public ByteGrid(int widthIn, int heightIn) {
+        if ((long) widthIn * heightIn > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Grid of " + widthIn + "x" + heightIn + " cells is too large");
+        _width = widthIn;
+        _height = heightIn;
+        _cells = new byte[widthIn * heightIn];
+        _startCell = -1;
+        _goalCell = -1;
+    }
+
+    byte[] getCells() {
+        return _cells;
+    }
+
+    public int getWidth() {
+        return _width;
+    }
+
+    public int getHeight() {
+        return _height;
+    }
+
+    public int getMarker(int cell) {
+        return _cells[cell];
+    }
+
+    public void setMarker(int cell, int marker) {
+        if (cell == _startCell)
+            _startCell = -1;
+        if (cell == _goalCell)
+            _goalCell = -1;
+        _cells[cell] = (byte) marker;
+        if (marker == AutonomousVehicleNavigator._startMarker)
+            _startCell = cell;
+        else if (marker == AutonomousVehicleNavigator._goalMarker)
+            _goalCell = cell;
+    }
+
+    public int getStartCell() {
+        return _startCell;
+    }
+
+    public int getGoalCell() {
+        return _goalCell;
+    }
+}
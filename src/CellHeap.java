@@ -0,0 +1,129 @@
+import java.util.Arrays;
+
+class CellHeap {
+    private final int[] _heap;
+    private final int[] _position;
+    private final long[] _key;
+    private int _size;
+
+    public CellHeap(int cellCount) {
+        _heap = new int[cellCount];
+        _position = new int[cellCount];
+        _key = new long[cellCount];
+        Arrays.fill(_position, -1);
+    }
+
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+    public int size() {
+        return _size;
+    }
+
+    public boolean contains(int cell) {
+        return _position[cell] != -1;
+    }
+
+    public long getKey(int cell) {
+        return _key[cell];
+    }
+
+    public long peekKey() {
+        return _key[_heap[0]];
+    }
+
+    public int get(int index) {
+        return _heap[index];
+    }
+
+    public int peek() {
+        return _heap[0];
+    }
+
+    public void push(int cell, long key) {
+        if (contains(cell)) {
+            update(cell, key);
+            return;
+        }
+        _key[cell] = key;
+        _heap[_size] = cell;
+        _position[cell] = _size;
+        siftUp(_size++);
+    }
+
+    public void update(int cell, long key) {
+        long previous = _key[cell];
+        _key[cell] = key;
+        if (key < previous)
+            siftUp(_position[cell]);
+        else if (key > previous)
+            siftDown(_position[cell]);
+    }
+
+    public int poll() {
+        int cell = _heap[0];
+        removeAt(0);
+        return cell;
+    }
+
+    public void remove(int cell) {
+        if (contains(cell))
+            removeAt(_position[cell]);
+    }
+
+    public void clear() {
+        for (int i = 0; i < _size; i++)
+            _position[_heap[i]] = -1;
+        _size = 0;
+    }
+
+    private void removeAt(int index) {
+        int cell = _heap[index];
+        _position[cell] = -1;
+        _size--;
+        if (index == _size)
+            return;
+        int last = _heap[_size];
+        _heap[index] = last;
+        _position[last] = index;
+        siftDown(index);
+        siftUp(_position[last]);
+    }
+
+    private void siftUp(int index) {
+        int cell = _heap[index];
+        long key = _key[cell];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            int parentCell = _heap[parent];
+            if (_key[parentCell] <= key)
+                break;
+            _heap[index] = parentCell;
+            _position[parentCell] = index;
+            index = parent;
+        }
+        _heap[index] = cell;
+        _position[cell] = index;
+    }
+
+    private void siftDown(int index) {
+        int cell = _heap[index];
+        long key = _key[cell];
+        int half = _size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < _size && _key[_heap[right]] < _key[_heap[child]])
+                child = right;
+            int childCell = _heap[child];
+            if (key <= _key[childCell])
+                break;
+            _heap[index] = childCell;
+            _position[childCell] = index;
+            index = child;
+        }
+        _heap[index] = cell;
+        _position[cell] = index;
+    }
+}
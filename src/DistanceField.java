@@ -0,0 +1,149 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+class DistanceField {
+    static final byte _goalHop = 4;
+    static final byte _unreachable = 5;
+
+    private final Grid _grid;
+    private final int _goalCell;
+    private final byte[] _nextHop;
+    private final int _reachableCount;
+
+    private DistanceField(Grid gridIn, int goalCellIn, byte[] nextHopIn, int reachableCountIn) {
+        _grid = gridIn;
+        _goalCell = goalCellIn;
+        _nextHop = nextHopIn;
+        _reachableCount = reachableCountIn;
+    }
+
+    public static DistanceField compute(Grid grid, int goalCell) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        byte[] nextHop = new byte[grid.getCellCount()];
+        Arrays.fill(nextHop, _unreachable);
+        int[] queue = new int[grid.getCellCount()];
+
+        int head = 0, tail = 0;
+        nextHop[goalCell] = _goalHop;
+        queue[tail++] = goalCell;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell % width;
+            int y = cell / width;
+            for (MapDirection direction : MapDirection._values) {
+                int childX = x + direction.dx;
+                int childY = y + direction.dy;
+                if (childX < 0 || childY < 0 || childX >= width || childY >= height)
+                    continue;
+                int child = childY * width + childX;
+                if (nextHop[child] != _unreachable || grid.isJammed(child))
+                    continue;
+                nextHop[child] = (byte) direction.opposite().ordinal();
+                queue[tail++] = child;
+            }
+        }
+        return new DistanceField(grid, goalCell, nextHop, tail);
+    }
+
+    public Grid getGrid() {
+        return _grid;
+    }
+
+    public int getGoalCell() {
+        return _goalCell;
+    }
+
+    public int getReachableCount() {
+        return _reachableCount;
+    }
+
+    public long getSizeInBytes() {
+        return _nextHop.length;
+    }
+
+    public boolean isReachable(int cell) {
+        return _nextHop[cell] != _unreachable;
+    }
+
+    public MapDirection getNextHop(int cell) {
+        byte hop = _nextHop[cell];
+        return hop < _goalHop ? MapDirection._values[hop] : null;
+    }
+
+    public int getNextCell(int cell) {
+        byte hop = _nextHop[cell];
+        if (hop >= _goalHop)
+            return -1;
+        MapDirection direction = MapDirection._values[hop];
+        return cell + direction.dy * _grid.getWidth() + direction.dx;
+    }
+
+    public int getDistance(int cell) {
+        if (!isReachable(cell))
+            return -1;
+        int distance = 0;
+        for (int current = cell; current != _goalCell; current = getNextCell(current))
+            distance++;
+        return distance;
+    }
+
+    public PrimitiveIterator.OfInt iteratePath(int startCell) {
+        if (!isReachable(startCell))
+            throw new IllegalArgumentException("Cell " + startCell + " cannot reach the goal");
+        return new PrimitiveIterator.OfInt() {
+            private int _cell = startCell;
+
+            public boolean hasNext() {
+                return _cell != -1;
+            }
+
+            public int nextInt() {
+                if (_cell == -1)
+                    throw new NoSuchElementException();
+                int cell = _cell;
+                _cell = getNextCell(cell);
+                return cell;
+            }
+        };
+    }
+
+    public PackedPath getPackedPath(int startCell) {
+        return isReachable(startCell) ? PackedPath.fromIterator(iteratePath(startCell), _grid.getWidth()) : null;
+    }
+
+    public int[] getPath(int startCell) {
+        int distance = getDistance(startCell);
+        if (distance == -1)
+            return null;
+
+        int[] path = new int[distance + 1];
+        path[0] = startCell;
+        for (int i = 1; i <= distance; i++)
+            path[i] = getNextCell(path[i - 1]);
+        return path;
+    }
+}
+
+class DistanceFieldEngine extends AbstractSearchEngine {
+    private final DistanceFieldCache _cache;
+    private final ExploredIndex _explored = new ExploredIndex();
+
+    public DistanceFieldEngine(DistanceFieldCache cacheIn) {
+        _cache = cacheIn;
+    }
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        if (!(problem instanceof GridProblem))
+            throw new IllegalArgumentException("Distance fields are only available for grid problems");
+
+        GridProblem gridProblem = (GridProblem) problem;
+        _explored.reset(problem.getStateCount());
+        if (problem.getGoalState() == -1)
+            return new SearchResult(null, _explored, _stats);
+
+        DistanceField field = _cache.get(gridProblem.getGrid(), problem.getGoalState());
+        return new SearchResult(field.getPath(problem.getStartState()), _explored, _stats);
+    }
+}
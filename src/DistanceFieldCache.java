@@ -0,0 +1,134 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class DistanceFieldCache {
+    static final long _defaultMaxBytes = 256L << 20;
+
+    private static final DistanceFieldCache _default = new DistanceFieldCache(_defaultMaxBytes);
+
+    private final LinkedHashMap<Key, DistanceField> _fields = new LinkedHashMap<>(16, 0.75f, true);
+    private final GridGenerations _generations = new GridGenerations();
+    private long _maxBytes;
+    private long _usedBytes;
+    private long _hits;
+    private long _misses;
+    private long _evictions;
+
+    public DistanceFieldCache(long maxBytesIn) {
+        _maxBytes = maxBytesIn;
+    }
+
+    public static DistanceFieldCache getDefault() {
+        return _default;
+    }
+
+    public DistanceField get(Grid grid, int goalCell) {
+        Key key = new Key(grid, goalCell);
+        long generation;
+        synchronized (this) {
+            DistanceField field = _fields.get(key);
+            if (field != null) {
+                _hits++;
+                return field;
+            }
+            _misses++;
+            generation = _generations.begin(grid);
+        }
+
+        while (true) {
+            DistanceField field = DistanceField.compute(grid, goalCell);
+            synchronized (this) {
+                if (!_generations.end(grid, generation)) {
+                    generation = _generations.begin(grid);
+                    continue;
+                }
+                DistanceField raced = _fields.get(key);
+                if (raced != null)
+                    return raced;
+                if (field.getSizeInBytes() <= _maxBytes) {
+                    _fields.put(key, field);
+                    _usedBytes += field.getSizeInBytes();
+                    evict();
+                }
+            }
+            return field;
+        }
+    }
+
+    public synchronized void invalidate(Grid grid) {
+        _generations.advance(grid);
+        Iterator<Map.Entry<Key, DistanceField>> entries = _fields.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Key, DistanceField> entry = entries.next();
+            if (entry.getKey()._grid == grid) {
+                _usedBytes -= entry.getValue().getSizeInBytes();
+                entries.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        _fields.clear();
+        _usedBytes = 0;
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        _maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized long getMaxBytes() {
+        return _maxBytes;
+    }
+
+    public synchronized long getUsedBytes() {
+        return _usedBytes;
+    }
+
+    public synchronized int size() {
+        return _fields.size();
+    }
+
+    public synchronized long getHits() {
+        return _hits;
+    }
+
+    public synchronized long getMisses() {
+        return _misses;
+    }
+
+    public synchronized long getEvictions() {
+        return _evictions;
+    }
+
+    private void evict() {
+        Iterator<DistanceField> eldest = _fields.values().iterator();
+        while (_usedBytes > _maxBytes && eldest.hasNext()) {
+            _usedBytes -= eldest.next().getSizeInBytes();
+            eldest.remove();
+            _evictions++;
+        }
+    }
+
+    private static final class Key {
+        private final Grid _grid;
+        private final int _goalCell;
+
+        Key(Grid gridIn, int goalCellIn) {
+            _grid = gridIn;
+            _goalCell = goalCellIn;
+        }
+
+        public boolean equals(Object other) {
+            if (!(other instanceof Key))
+                return false;
+            Key key = (Key) other;
+            return _grid == key._grid && _goalCell == key._goalCell;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(_grid) * 31 + _goalCell;
+        }
+    }
+}
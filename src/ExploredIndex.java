@@ -0,0 +1,54 @@
+import java.util.Arrays;
+
+class ExploredIndex {
+    static final int _unexplored = -1;
+
+    private int[] _depth = new int[0];
+    private int[] _stamp = new int[0];
+    private int _generation;
+    private int _count;
+
+    public void reset(int stateCount) {
+        if (_depth.length != stateCount) {
+            _depth = new int[stateCount];
+            _stamp = new int[stateCount];
+            _generation = 0;
+        }
+        if (++_generation == Integer.MAX_VALUE) {
+            Arrays.fill(_stamp, 0);
+            _generation = 1;
+        }
+        _count = 0;
+    }
+
+    public int getStateCount() {
+        return _depth.length;
+    }
+
+    public boolean contains(int state) {
+        return _stamp[state] == _generation;
+    }
+
+    public int getDepth(int state) {
+        return contains(state) ? _depth[state] : _unexplored;
+    }
+
+    public void mark(int state, int depth) {
+        if (!contains(state)) {
+            _stamp[state] = _generation;
+            _count++;
+        }
+        _depth[state] = depth;
+    }
+
+    public void unmark(int state) {
+        if (contains(state)) {
+            _stamp[state] = _generation - 1;
+            _count--;
+        }
+    }
+
+    public int size() {
+        return _count;
+    }
+}
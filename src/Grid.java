@@ -0,0 +1,29 @@
+interface Grid {
+    int getWidth();
+
+    int getHeight();
+
+    int getMarker(int cell);
+
+    void setMarker(int cell, int marker);
+
+    int getStartCell();
+
+    int getGoalCell();
+
+    default int getCellCount() {
+        return getWidth() * getHeight();
+    }
+
+    default int toCell(int x, int y) {
+        return y * getWidth() + x;
+    }
+
+    default int getMarker(int x, int y) {
+        return getMarker(toCell(x, y));
+    }
+
+    default boolean isJammed(int cell) {
+        return getMarker(cell) == AutonomousVehicleNavigator._jammedMarker;
+    }
+}
@@ -0,0 +1,35 @@
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+class GridGenerations {
+    private final Map<Grid, Tracker> _trackers = new IdentityHashMap<>();
+
+    public long begin(Grid grid) {
+        Tracker tracker = _trackers.computeIfAbsent(grid, key -> new Tracker());
+        tracker.builders++;
+        return tracker.generation;
+    }
+
+    public boolean end(Grid grid, long generation) {
+        Tracker tracker = _trackers.get(grid);
+        boolean current = tracker.generation == generation;
+        if (--tracker.builders == 0)
+            _trackers.remove(grid);
+        return current;
+    }
+
+    public void advance(Grid grid) {
+        Tracker tracker = _trackers.get(grid);
+        if (tracker != null)
+            tracker.generation++;
+    }
+
+    public int size() {
+        return _trackers.size();
+    }
+
+    private static final class Tracker {
+        long generation;
+        int builders;
+    }
+}
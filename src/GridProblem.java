@@ -0,0 +1,110 @@
+import java.util.SplittableRandom;
+
+class GridProblem implements SearchProblem {
+    private final Grid _grid;
+    private final int _width;
+    private final int _height;
+    private final int _startCell;
+    private final int _goalCell;
+    private final int _goalX;
+    private final int _goalY;
+    private SplittableRandom _random;
+
+    public GridProblem(Grid gridIn) {
+        this(gridIn, gridIn.getStartCell(), gridIn.getGoalCell());
+    }
+
+    public GridProblem(Grid gridIn, int startCellIn, int goalCellIn) {
+        _grid = gridIn;
+        _height = gridIn.getHeight();
+        _width = gridIn.getWidth();
+        _startCell = startCellIn;
+        _goalCell = goalCellIn;
+        _goalX = goalCellIn == -1 ? 0 : goalCellIn % _width;
+        _goalY = goalCellIn == -1 ? 0 : goalCellIn / _width;
+    }
+
+    public void setShuffleSeed(long seed) {
+        _random = new SplittableRandom(seed);
+    }
+
+    public Grid getGrid() {
+        return _grid;
+    }
+
+    public int getWidth() {
+        return _width;
+    }
+
+    public int getHeight() {
+        return _height;
+    }
+
+    public int toCell(int x, int y) {
+        return y * _width + x;
+    }
+
+    public int getX(int cell) {
+        return cell % _width;
+    }
+
+    public int getY(int cell) {
+        return cell / _width;
+    }
+
+    public int getMarker(int cell) {
+        return _grid.getMarker(cell);
+    }
+
+    public int getStateCount() {
+        return _width * _height;
+    }
+
+    public int getStartState() {
+        return _startCell;
+    }
+
+    public int getGoalState() {
+        return _goalCell;
+    }
+
+    public boolean isGoalState(int state) {
+        return state == _goalCell;
+    }
+
+    public int getMaxSuccessors() {
+        return 4;
+    }
+
+    public int getSuccessors(int state, int[] buffer) {
+        int y = state / _width;
+        int x = state % _width;
+        int count = 0;
+        if (y > 0 && !_grid.isJammed(state - _width)) buffer[count++] = state - _width;
+        if (x > 0 && !_grid.isJammed(state - 1)) buffer[count++] = state - 1;
+        if (y < _height - 1 && !_grid.isJammed(state + _width)) buffer[count++] = state + _width;
+        if (x < _width - 1 && !_grid.isJammed(state + 1)) buffer[count++] = state + 1;
+
+        if (_random != null) {
+            for (int i = count - 1; i > 0; i--) {
+                int j = _random.nextInt(i + 1);
+                int swap = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = swap;
+            }
+        }
+        return count;
+    }
+
+    public int getPredecessors(int state, int[] buffer) {
+        return getSuccessors(state, buffer);
+    }
+
+    public int getHeuristic(int state) {
+        return Math.abs(state / _width - _goalY) + Math.abs(state % _width - _goalX);
+    }
+
+    public String describe(int state) {
+        return "(" + getY(state) + "," + getX(state) + ")";
+    }
+}
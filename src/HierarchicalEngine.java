@@ -0,0 +1,199 @@
+import java.util.ConcurrentModificationException;
+
+class HierarchicalEngine extends AbstractSearchEngine {
+    static final int _maxAttempts = 8;
+
+    private final AbstractGraphCache _cache;
+    private final ExploredIndex _closed = new ExploredIndex();
+    private final ExploredIndex _reached = new ExploredIndex();
+    private int[] _parent = new int[0];
+    private int[] _hopCells = new int[0];
+    private int[] _hopCosts = new int[0];
+    private int[] _startDistances = new int[0];
+    private int[] _goalDistances = new int[0];
+    private CellHeap _frontier;
+    private ClusterSearch _search;
+    private int _searchClusterSize;
+    private AbstractGraph _graph;
+    private AbstractGraph.Snapshot _snapshot;
+    private int _goalCell;
+    private int _goalCluster;
+    private int _directCost;
+
+    public HierarchicalEngine(AbstractGraphCache cacheIn) {
+        _cache = cacheIn;
+    }
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        if (!(problem instanceof GridProblem))
+            throw new IllegalArgumentException("Hierarchical search is only available for grid problems");
+
+        GridProblem gridProblem = (GridProblem) problem;
+        int start = problem.getStartState();
+        _goalCell = problem.getGoalState();
+        if (_goalCell == -1)
+            return new SearchResult(null, null, _stats);
+        if (start == _goalCell)
+            return new SearchResult(new int[] {start}, null, _stats);
+
+        try {
+            for (int attempt = 1; ; attempt++) {
+                _graph = _cache.get(gridProblem.getGrid());
+                _snapshot = _graph.getSnapshot();
+                SearchResult result = search(gridProblem, start);
+                if (result != null)
+                    return result;
+                if (attempt == _maxAttempts)
+                    throw new ConcurrentModificationException("Grid kept changing during " + attempt + " hierarchical searches");
+            }
+        }
+        finally {
+            _graph = null;
+            _snapshot = null;
+        }
+    }
+
+    private SearchResult search(GridProblem problem, int start) {
+        int nodeCount = _snapshot.getNodeCount();
+        int startNode = nodeCount;
+        int goalNode = nodeCount + 1;
+        if (_parent.length != nodeCount + 2) {
+            _parent = new int[nodeCount + 2];
+            _frontier = new CellHeap(nodeCount + 2);
+        }
+        if (_search == null || _searchClusterSize != _graph.getClusterSize()) {
+            _search = new ClusterSearch(_graph.getClusterSize());
+            _searchClusterSize = _graph.getClusterSize();
+        }
+        _closed.reset(nodeCount + 2);
+        _reached.reset(nodeCount + 2);
+        _frontier.clear();
+
+        int startCluster = _graph.getClusterOf(start);
+        _goalCluster = _graph.getClusterOf(_goalCell);
+        _goalDistances = attach(_goalCluster, _goalCell, _goalDistances);
+        _startDistances = attach(startCluster, start, _startDistances);
+        _directCost = startCluster == _goalCluster ? _search.getDistance(_goalCell) : -1;
+
+        _reached.mark(startNode, 0);
+        _parent[startNode] = -1;
+        _frontier.push(startNode, getKey(start, 0));
+        while (!_frontier.isEmpty()) {
+            int node = _frontier.poll();
+            int costSoFar = _reached.getDepth(node);
+            _closed.mark(node, costSoFar);
+            _stats.expansions++;
+            if (_listener != null)
+                _listener.onExpand(problem, getCell(node, start), costSoFar);
+            if (node == goalNode) {
+                _frontier.clear();
+                int[] path = refine(start, costSoFar);
+                return path == null ? null : new SearchResult(path, null, _stats);
+            }
+
+            if (node == startNode) {
+                int first = _snapshot.getFirstNode(startCluster);
+                for (int i = 0; i < _snapshot.getNodeCount(startCluster); i++)
+                    relax(problem, node, first + i, _startDistances[i], costSoFar, start);
+                relax(problem, node, goalNode, _directCost, costSoFar, start);
+            }
+            else {
+                int cluster = _snapshot.getNodeCluster(node);
+                int first = _snapshot.getFirstNode(cluster);
+                int local = node - first;
+                for (int i = 0; i < _snapshot.getNodeCount(cluster); i++)
+                    if (i != local)
+                        relax(problem, node, first + i, _snapshot.getIntraDistance(cluster, local, i), costSoFar, start);
+                for (int link = 0; link < _snapshot.getLinkCount(node); link++)
+                    relax(problem, node, _snapshot.getLinkedNode(node, link), 1, costSoFar, start);
+                if (cluster == _goalCluster)
+                    relax(problem, node, goalNode, _goalDistances[local], costSoFar, start);
+            }
+            _stats.updateFrontier(_frontier.size());
+        }
+        return new SearchResult(null, null, _stats);
+    }
+
+    private int[] attach(int cluster, int cell, int[] distances) {
+        int count = _snapshot.getNodeCount(cluster);
+        if (distances.length < count)
+            distances = new int[Math.max(count, distances.length * 2)];
+        _search.run(_graph, cluster, cell);
+        int first = _snapshot.getFirstNode(cluster);
+        for (int i = 0; i < count; i++)
+            distances[i] = _search.getDistance(_snapshot.getNodeCell(first + i));
+        return distances;
+    }
+
+    private void relax(GridProblem problem, int node, int child, int cost, int costSoFar, int start) {
+        if (cost < 0)
+            return;
+        int childCost = costSoFar + cost;
+        _stats.generated++;
+        if (_closed.contains(child) || (_reached.contains(child) && childCost >= _reached.getDepth(child))) {
+            _stats.duplicates++;
+            return;
+        }
+        if (_listener != null)
+            _listener.onGenerate(problem, getCell(child, start), childCost);
+        _reached.mark(child, childCost);
+        _parent[child] = node;
+        _frontier.push(child, getKey(getCell(child, start), childCost));
+    }
+
+    private int[] refine(int start, int length) {
+        int nodeCount = _snapshot.getNodeCount();
+        int hops = 0;
+        for (int node = nodeCount + 1; node != -1; node = _parent[node])
+            hops++;
+        if (_hopCells.length < hops) {
+            _hopCells = new int[Math.max(hops, _hopCells.length * 2)];
+            _hopCosts = new int[_hopCells.length];
+        }
+        for (int node = nodeCount + 1, i = hops - 1; node != -1; node = _parent[node], i--) {
+            _hopCells[i] = getCell(node, start);
+            _hopCosts[i] = _reached.getDepth(node);
+        }
+
+        Grid grid = _graph.getGrid();
+        int[] path = new int[length + 1];
+        path[0] = start;
+        int offset = 1;
+        for (int i = 1; i < hops; i++) {
+            int from = _hopCells[i - 1];
+            int to = _hopCells[i];
+            int cost = _hopCosts[i] - _hopCosts[i - 1];
+            int cluster = _graph.getClusterOf(from);
+            if (cluster != _graph.getClusterOf(to)) {
+                if (cost != 1)
+                    return null;
+                path[offset++] = to;
+            }
+            else {
+                _search.run(_graph, cluster, from);
+                if (_search.getDistance(to) != cost)
+                    return null;
+                offset = _search.appendPathTo(to, path, offset);
+            }
+        }
+        for (int cell : path)
+            if (grid.isJammed(cell))
+                return null;
+        return path;
+    }
+
+    private int getCell(int node, int start) {
+        int nodeCount = _snapshot.getNodeCount();
+        if (node == nodeCount)
+            return start;
+        if (node == nodeCount + 1)
+            return _goalCell;
+        return _snapshot.getNodeCell(node);
+    }
+
+    private long getKey(int cell, int costSoFar) {
+        int width = _graph.getGrid().getWidth();
+        int heuristic = Math.abs(cell % width - _goalCell % width) + Math.abs(cell / width - _goalCell / width);
+        return ((long) (costSoFar + heuristic) << 32) | heuristic;
+    }
+}
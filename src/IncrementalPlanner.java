@@ -0,0 +1,212 @@
+import java.util.Arrays;
+
+class IncrementalPlanner {
+    static final int _infinity = Integer.MAX_VALUE / 4;
+
+    private final Grid _grid;
+    private final int _width;
+    private final int _height;
+    private final int _goalCell;
+    private final int[] _g;
+    private final int[] _rhs;
+    private final CellHeap _frontier;
+    private final ExploredIndex _explored = new ExploredIndex();
+    private int _startCell;
+    private int _lastStartCell;
+    private int _keyModifier;
+    private boolean _initialized;
+
+    public IncrementalPlanner(Grid gridIn, int startCellIn, int goalCellIn) {
+        _grid = gridIn;
+        _width = gridIn.getWidth();
+        _height = gridIn.getHeight();
+        _startCell = startCellIn;
+        _lastStartCell = startCellIn;
+        _goalCell = goalCellIn;
+        _g = new int[gridIn.getCellCount()];
+        _rhs = new int[gridIn.getCellCount()];
+        _frontier = new CellHeap(gridIn.getCellCount());
+        _explored.reset(gridIn.getCellCount());
+    }
+
+    public Grid getGrid() {
+        return _grid;
+    }
+
+    public int getStartCell() {
+        return _startCell;
+    }
+
+    public int getGoalCell() {
+        return _goalCell;
+    }
+
+    public ExploredIndex getExplored() {
+        return _explored;
+    }
+
+    public int getExpandedCount() {
+        return _explored.size();
+    }
+
+    public void setStartCell(int cell) {
+        _startCell = cell;
+    }
+
+    public void markJammed(int cell) {
+        setMarker(cell, AutonomousVehicleNavigator._jammedMarker);
+    }
+
+    public void markClear(int cell) {
+        setMarker(cell, AutonomousVehicleNavigator._clearMarker);
+    }
+
+    private void setMarker(int cell, int marker) {
+        boolean wasJammed = _grid.isJammed(cell);
+        _grid.setMarker(cell, marker);
+        if (wasJammed != _grid.isJammed(cell))
+            onCellChanged(cell);
+    }
+
+    public void onCellChanged(int cell) {
+        if (!_initialized)
+            return;
+
+        if (_lastStartCell != _startCell) {
+            _keyModifier += getHeuristic(_lastStartCell, _startCell);
+            _lastStartCell = _startCell;
+        }
+
+        updateVertex(cell);
+        int x = cell % _width;
+        int y = cell / _width;
+        for (MapDirection direction : MapDirection._values) {
+            int neighbor = getNeighbor(x, y, direction);
+            if (neighbor != -1)
+                updateVertex(neighbor);
+        }
+    }
+
+    public int[] plan() {
+        if (!_initialized)
+            initialize();
+
+        _explored.reset(_grid.getCellCount());
+        computeShortestPath();
+        return extractPath();
+    }
+
+    private void initialize() {
+        Arrays.fill(_g, _infinity);
+        Arrays.fill(_rhs, _infinity);
+        _frontier.clear();
+        _keyModifier = 0;
+        _lastStartCell = _startCell;
+        _rhs[_goalCell] = 0;
+        _frontier.push(_goalCell, calculateKey(_goalCell));
+        _initialized = true;
+    }
+
+    private void computeShortestPath() {
+        while (!_frontier.isEmpty()
+                && (_frontier.peekKey() < calculateKey(_startCell) || _rhs[_startCell] != _g[_startCell])) {
+            long oldKey = _frontier.peekKey();
+            int cell = _frontier.poll();
+            _explored.mark(cell, Math.min(_g[cell], _rhs[cell]));
+
+            long newKey = calculateKey(cell);
+            if (oldKey < newKey) {
+                _frontier.push(cell, newKey);
+            }
+            else if (_g[cell] > _rhs[cell]) {
+                _g[cell] = _rhs[cell];
+                updateNeighbors(cell);
+            }
+            else {
+                _g[cell] = _infinity;
+                updateVertex(cell);
+                updateNeighbors(cell);
+            }
+        }
+    }
+
+    private void updateNeighbors(int cell) {
+        int x = cell % _width;
+        int y = cell / _width;
+        for (MapDirection direction : MapDirection._values) {
+            int neighbor = getNeighbor(x, y, direction);
+            if (neighbor != -1)
+                updateVertex(neighbor);
+        }
+    }
+
+    private void updateVertex(int cell) {
+        if (cell != _goalCell) {
+            int best = _infinity;
+            int x = cell % _width;
+            int y = cell / _width;
+            for (MapDirection direction : MapDirection._values) {
+                int neighbor = getNeighbor(x, y, direction);
+                if (neighbor != -1)
+                    best = Math.min(best, getCost(cell, neighbor) + _g[neighbor]);
+            }
+            _rhs[cell] = Math.min(best, _infinity);
+        }
+
+        if (_g[cell] != _rhs[cell])
+            _frontier.push(cell, calculateKey(cell));
+        else
+            _frontier.remove(cell);
+    }
+
+    private int[] extractPath() {
+        if (_g[_startCell] >= _infinity)
+            return null;
+
+        int[] path = new int[_g[_startCell] + 1];
+        path[0] = _startCell;
+        for (int i = 1; i < path.length; i++) {
+            int cell = path[i - 1];
+            int x = cell % _width;
+            int y = cell / _width;
+            int next = -1;
+            int best = _infinity;
+            for (MapDirection direction : MapDirection._values) {
+                int neighbor = getNeighbor(x, y, direction);
+                if (neighbor == -1)
+                    continue;
+                int cost = getCost(cell, neighbor) + _g[neighbor];
+                if (cost < best) {
+                    best = cost;
+                    next = neighbor;
+                }
+            }
+            if (next == -1)
+                return null;
+            path[i] = next;
+        }
+        return path;
+    }
+
+    private long calculateKey(int cell) {
+        long minimum = Math.min(_g[cell], _rhs[cell]);
+        long primary = minimum >= _infinity ? _infinity * 2L : minimum + getHeuristic(_startCell, cell) + _keyModifier;
+        return (primary << 32) | minimum;
+    }
+
+    private int getCost(int from, int to) {
+        return _grid.isJammed(from) || _grid.isJammed(to) ? _infinity : 1;
+    }
+
+    private int getHeuristic(int from, int to) {
+        return Math.abs(from % _width - to % _width) + Math.abs(from / _width - to / _width);
+    }
+
+    private int getNeighbor(int x, int y, MapDirection direction) {
+        int neighborX = x + direction.dx;
+        int neighborY = y + direction.dy;
+        if (neighborX < 0 || neighborY < 0 || neighborX >= _width || neighborY >= _height)
+            return -1;
+        return neighborY * _width + neighborX;
+    }
+}
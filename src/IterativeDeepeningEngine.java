@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+class IterativeDeepeningEngine extends AbstractSearchEngine {
+    private final int _maxDepth;
+    private final ExploredIndex _explored = new ExploredIndex();
+    private final int[] _path;
+    private int _pathLength;
+    private int[][] _successors = new int[0][];
+    private SearchProblem _problem;
+
+    public IterativeDeepeningEngine(int maxDepthIn) {
+        _maxDepth = maxDepthIn;
+        _path = new int[maxDepthIn + 1];
+    }
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        _problem = problem;
+        if (_successors.length == 0 || _successors[0].length < problem.getMaxSuccessors())
+            _successors = new int[_maxDepth][problem.getMaxSuccessors()];
+
+        try {
+            for (int depthLimit = 0; depthLimit < _maxDepth; depthLimit++) {
+                _explored.reset(problem.getStateCount());
+                _pathLength = 0;
+                SearchStatus result = PerformDepthLimitedSearch(problem.getStartState(), 0, depthLimit);
+                if (result == SearchStatus.Solution)
+                    return new SearchResult(Arrays.copyOf(_path, _pathLength), _explored, _stats);
+            }
+            return new SearchResult(null, _explored, _stats);
+        }
+        finally {
+            _problem = null;
+        }
+    }
+
+    private SearchStatus PerformDepthLimitedSearch(int state, int depth, int depthLimit) {
+        boolean hasCutOff = false;
+
+        _path[_pathLength++] = state;
+        _stats.updateFrontier(_pathLength);
+
+        if (_problem.isGoalState(state)) {
+            return SearchStatus.Solution;
+        }
+        if (depthLimit == 0) {
+            _stats.cutoffs++;
+            if (_listener != null)
+                _listener.onCutoff(_problem, state, depth);
+            return SearchStatus.CutOff;
+        }
+
+        _explored.mark(state, depth);
+        _stats.expansions++;
+        if (_listener != null)
+            _listener.onExpand(_problem, state, depth);
+
+        int[] successors = _successors[depth];
+        int successorCount = _problem.getSuccessors(state, successors);
+        for (int i = 0; i < successorCount; i++) {
+            int child = successors[i];
+            int childDepth = depth + 1;
+            _stats.generated++;
+            if (_listener != null)
+                _listener.onGenerate(_problem, child, childDepth);
+
+            if (_problem.isGoalState(child)) {
+                _path[_pathLength++] = child;
+                return SearchStatus.Solution;
+            }
+
+            if (_explored.contains(child)) {
+                if (_explored.getDepth(child) > childDepth) {
+                    _explored.unmark(child);
+                }
+                else {
+                    _stats.duplicates++;
+                    if (_listener != null)
+                        _listener.onDuplicate(_problem, child, childDepth);
+                    continue;
+                }
+            }
+
+            SearchStatus childStatus = PerformDepthLimitedSearch(child, childDepth, depthLimit - 1);
+
+            if (childStatus == SearchStatus.Solution)
+                return childStatus;
+            if (childStatus == SearchStatus.CutOff)
+                hasCutOff = true;
+
+            _pathLength = depth + 1;
+        }
+
+        if (hasCutOff)
+            return SearchStatus.CutOff;
+
+        return SearchStatus.Failure;
+    }
+}
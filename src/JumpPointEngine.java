@@ -0,0 +1,139 @@
+class JumpPointEngine extends AbstractSearchEngine {
+    private final ExploredIndex _explored = new ExploredIndex();
+    private final ExploredIndex _reached = new ExploredIndex();
+    private int[] _parent = new int[0];
+    private CellHeap _frontier;
+    private Grid _grid;
+    private int _width;
+    private int _height;
+    private int _goalCell;
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        if (!(problem instanceof GridProblem))
+            throw new IllegalArgumentException("Jump point search is only available for grid problems");
+
+        GridProblem gridProblem = (GridProblem) problem;
+        int cellCount = problem.getStateCount();
+        _grid = gridProblem.getGrid();
+        _width = gridProblem.getWidth();
+        _height = gridProblem.getHeight();
+        _goalCell = problem.getGoalState();
+        _explored.reset(cellCount);
+        _reached.reset(cellCount);
+        if (_parent.length != cellCount) {
+            _parent = new int[cellCount];
+            _frontier = new CellHeap(cellCount);
+        }
+        _frontier.clear();
+
+        try {
+            if (_goalCell == -1)
+                return new SearchResult(null, _explored, _stats);
+
+            int start = problem.getStartState();
+            _reached.mark(start, 0);
+            _parent[start] = -1;
+            _frontier.push(start, getKey(problem, start, 0));
+
+            while (!_frontier.isEmpty()) {
+                int cell = _frontier.poll();
+                int costSoFar = _reached.getDepth(cell);
+                _explored.mark(cell, costSoFar);
+                _stats.expansions++;
+                if (_listener != null)
+                    _listener.onExpand(problem, cell, costSoFar);
+                if (cell == _goalCell) {
+                    _frontier.clear();
+                    return new SearchResult(buildPath(cell, costSoFar), _explored, _stats);
+                }
+
+                int x = cell % _width;
+                int y = cell / _width;
+                int parent = _parent[cell];
+                int parentDx = parent == -1 ? 0 : Integer.signum(x - parent % _width);
+                int parentDy = parent == -1 ? 0 : Integer.signum(y - parent / _width);
+
+                for (MapDirection direction : MapDirection._values) {
+                    if (direction.dx == -parentDx && direction.dy == -parentDy && parent != -1)
+                        continue;
+
+                    int jumpPoint = jump(x + direction.dx, y + direction.dy, direction);
+                    if (jumpPoint == -1)
+                        continue;
+
+                    int childCost = costSoFar + Math.abs(jumpPoint % _width - x) + Math.abs(jumpPoint / _width - y);
+                    _stats.generated++;
+                    if (_explored.contains(jumpPoint)
+                            || (_reached.contains(jumpPoint) && childCost >= _reached.getDepth(jumpPoint))) {
+                        _stats.duplicates++;
+                        if (_listener != null)
+                            _listener.onDuplicate(problem, jumpPoint, childCost);
+                        continue;
+                    }
+                    if (_listener != null)
+                        _listener.onGenerate(problem, jumpPoint, childCost);
+                    _reached.mark(jumpPoint, childCost);
+                    _parent[jumpPoint] = cell;
+                    _frontier.push(jumpPoint, getKey(problem, jumpPoint, childCost));
+                }
+                _stats.updateFrontier(_frontier.size());
+            }
+            return new SearchResult(null, _explored, _stats);
+        }
+        finally {
+            _grid = null;
+        }
+    }
+
+    private int jump(int x, int y, MapDirection direction) {
+        int dx = direction.dx;
+        int dy = direction.dy;
+        while (isWalkable(x, y)) {
+            int cell = y * _width + x;
+            if (cell == _goalCell)
+                return cell;
+
+            if (dx != 0) {
+                if ((isWalkable(x, y - 1) && !isWalkable(x - dx, y - 1))
+                        || (isWalkable(x, y + 1) && !isWalkable(x - dx, y + 1)))
+                    return cell;
+            }
+            else {
+                if ((isWalkable(x - 1, y) && !isWalkable(x - 1, y - dy))
+                        || (isWalkable(x + 1, y) && !isWalkable(x + 1, y - dy)))
+                    return cell;
+                if (jump(x + 1, y, MapDirection.East) != -1 || jump(x - 1, y, MapDirection.West) != -1)
+                    return cell;
+            }
+
+            x += dx;
+            y += dy;
+        }
+        return -1;
+    }
+
+    private boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < _width && y < _height && !_grid.isJammed(y * _width + x);
+    }
+
+    private int[] buildPath(int goalCell, int length) {
+        int[] path = new int[length + 1];
+        int i = length;
+        path[i] = goalCell;
+        for (int cell = goalCell; _parent[cell] != -1; cell = _parent[cell]) {
+            int parent = _parent[cell];
+            int step = parent % _width == cell % _width
+                    ? Integer.signum(parent - cell) * _width
+                    : Integer.signum(parent - cell);
+            for (int current = cell + step; current != parent; current += step)
+                path[--i] = current;
+            path[--i] = parent;
+        }
+        return path;
+    }
+
+    private static long getKey(SearchProblem problem, int cell, int costSoFar) {
+        int heuristic = problem.getHeuristic(cell);
+        return ((long) (costSoFar + heuristic) << 32) | heuristic;
+    }
+}
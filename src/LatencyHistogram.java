@@ -0,0 +1,65 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class LatencyHistogram {
+    static final int _subBucketBits = 4;
+    static final int _subBucketCount = 1 << _subBucketBits;
+    static final int _bucketCount = (64 - _subBucketBits) * _subBucketCount;
+
+    private final AtomicLongArray _counts = new AtomicLongArray(_bucketCount);
+
+    public void record(long nanos) {
+        _counts.incrementAndGet(getBucket(Math.max(0, nanos)));
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < _bucketCount; i++)
+            count += _counts.get(i);
+        return count;
+    }
+
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[_bucketCount];
+        long count = 0;
+        for (int i = 0; i < _bucketCount; i++) {
+            snapshot[i] = _counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < _bucketCount; i++) {
+            seen += snapshot[i];
+            if (seen >= rank)
+                return getUpperBound(i);
+        }
+        return getUpperBound(_bucketCount - 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < _bucketCount; i++)
+            _counts.set(i, 0);
+    }
+
+    static int getBucket(long value) {
+        if (value < _subBucketCount)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - _subBucketBits)) & (_subBucketCount - 1);
+        return (exponent - _subBucketBits + 1) * _subBucketCount + subBucket;
+    }
+
+    static long getLowerBound(int bucket) {
+        if (bucket < _subBucketCount)
+            return bucket;
+        int exponent = bucket / _subBucketCount + _subBucketBits - 1;
+        long subBucket = bucket % _subBucketCount;
+        return (_subBucketCount + subBucket) << (exponent - _subBucketBits);
+    }
+
+    static long getUpperBound(int bucket) {
+        return bucket == _bucketCount - 1 ? Long.MAX_VALUE : getLowerBound(bucket + 1) - 1;
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.Arrays;
+
+class LongIntMap {
+    static final long _emptyKey = -1;
+    static final int _missing = -1;
+    static final long _hashMultiplier = 0x9E3779B97F4A7C15L;
+
+    private long[] _keys;
+    private int[] _values;
+    private int _mask;
+    private int _shift;
+    private int _size;
+
+    public LongIntMap(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+    }
+
+    private void allocate(int capacity) {
+        _keys = new long[capacity];
+        _values = new int[capacity];
+        Arrays.fill(_keys, _emptyKey);
+        _mask = capacity - 1;
+        _shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        _size = 0;
+    }
+
+    public int size() {
+        return _size;
+    }
+
+    public int getCapacity() {
+        return _keys.length;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != _missing;
+    }
+
+    public int get(long key) {
+        for (int slot = getSlot(key); ; slot = (slot + 1) & _mask) {
+            long current = _keys[slot];
+            if (current == key)
+                return _values[slot];
+            if (current == _emptyKey)
+                return _missing;
+        }
+    }
+
+    public int put(long key, int value) {
+        if (key == _emptyKey)
+            throw new IllegalArgumentException("Key " + key + " is reserved for empty slots");
+        if (value == _missing)
+            throw new IllegalArgumentException("Value " + value + " is reserved for missing keys");
+        if (2 * (_size + 1) > _keys.length)
+            rehash(_keys.length << 1);
+
+        for (int slot = getSlot(key); ; slot = (slot + 1) & _mask) {
+            long current = _keys[slot];
+            if (current == key) {
+                int previous = _values[slot];
+                _values[slot] = value;
+                return previous;
+            }
+            if (current == _emptyKey) {
+                _keys[slot] = key;
+                _values[slot] = value;
+                _size++;
+                return _missing;
+            }
+        }
+    }
+
+    public void clear() {
+        if (_size == 0)
+            return;
+        Arrays.fill(_keys, _emptyKey);
+        _size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] keys = _keys;
+        int[] values = _values;
+        allocate(capacity);
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != _emptyKey)
+                put(keys[i], values[i]);
+    }
+
+    private int getSlot(long key) {
+        return (int) ((key * _hashMultiplier) >>> _shift);
+    }
+
+    public long getSizeInBytes() {
+        return 12L * _keys.length;
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class MappedGrid implements Grid {
+    static final int _magic = 0x59475244;
+    static final int _version = 1;
+    static final int _headerSize = 24;
+    static final int _startCellOffset = 16;
+    static final int _goalCellOffset = 20;
+
+    private final MappedByteBuffer _buffer;
+    private final int _width;
+    private final int _height;
+    private final boolean _writable;
+
+    private MappedGrid(MappedByteBuffer bufferIn, boolean writableIn) throws IOException {
+        _buffer = bufferIn;
+        _buffer.order(ByteOrder.LITTLE_ENDIAN);
+        _writable = writableIn;
+        if (_buffer.limit() < _headerSize || _buffer.getInt(0) != _magic)
+            throw new IOException("Not a grid file");
+        if (_buffer.getInt(4) != _version)
+            throw new IOException("Unsupported grid file version " + _buffer.getInt(4));
+        _width = _buffer.getInt(8);
+        _height = _buffer.getInt(12);
+        if (_width <= 0 || _height <= 0 || (long) _width * _height > Integer.MAX_VALUE)
+            throw new IOException("Invalid grid size " + _width + "x" + _height);
+        if (_buffer.limit() < _headerSize + getDataSize(_width, _height))
+            throw new IOException("Grid file is truncated");
+    }
+
+    public static MappedGrid open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    public static MappedGrid open(Path path, boolean writable) throws IOException {
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    0, channel.size());
+            return new MappedGrid(buffer, writable);
+        }
+    }
+
+    public static void write(Grid grid, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(_headerSize).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(_magic).putInt(_version).putInt(grid.getWidth()).putInt(grid.getHeight())
+                    .putInt(grid.getStartCell()).putInt(grid.getGoalCell()).flip();
+            while (header.hasRemaining())
+                channel.write(header);
+
+            ByteBuffer chunk = ByteBuffer.allocate(1 << 16);
+            int cellCount = grid.getCellCount();
+            for (int cell = 0; cell < cellCount; cell += 4) {
+                int packed = 0;
+                for (int i = 0; i < 4 && cell + i < cellCount; i++)
+                    packed |= (grid.getMarker(cell + i) & 3) << (i << 1);
+                chunk.put((byte) packed);
+                if (!chunk.hasRemaining())
+                    flush(channel, chunk);
+            }
+            flush(channel, chunk);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining())
+            channel.write(chunk);
+        chunk.clear();
+    }
+
+    static long getDataSize(int width, int height) {
+        return ((long) width * height + 3) >>> 2;
+    }
+
+    public boolean isWritable() {
+        return _writable;
+    }
+
+    public int getWidth() {
+        return _width;
+    }
+
+    public int getHeight() {
+        return _height;
+    }
+
+    public int getMarker(int cell) {
+        return (_buffer.get(_headerSize + (cell >>> 2)) >>> ((cell & 3) << 1)) & 3;
+    }
+
+    public void setMarker(int cell, int marker) {
+        if (!_writable)
+            throw new UnsupportedOperationException("Grid file is mapped read-only");
+
+        if (cell == getStartCell())
+            _buffer.putInt(_startCellOffset, -1);
+        if (cell == getGoalCell())
+            _buffer.putInt(_goalCellOffset, -1);
+
+        int index = _headerSize + (cell >>> 2);
+        int shift = (cell & 3) << 1;
+        _buffer.put(index, (byte) ((_buffer.get(index) & ~(3 << shift)) | ((marker & 3) << shift)));
+
+        if (marker == AutonomousVehicleNavigator._startMarker)
+            _buffer.putInt(_startCellOffset, cell);
+        else if (marker == AutonomousVehicleNavigator._goalMarker)
+            _buffer.putInt(_goalCellOffset, cell);
+    }
+
+    public int getStartCell() {
+        return _buffer.getInt(_startCellOffset);
+    }
+
+    public int getGoalCell() {
+        return _buffer.getInt(_goalCellOffset);
+    }
+
+    public void force() {
+        _buffer.force();
+    }
+}
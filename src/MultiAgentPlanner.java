@@ -0,0 +1,352 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+class MultiAgentPlanner {
+    private final Grid _grid;
+    private final ReservationTable _table;
+    private final SpaceTimeSearch _search;
+    private final ThreadLocal<AStarEngine> _engines = ThreadLocal.withInitial(AStarEngine::new);
+    private int _conflictCount;
+    private int _failedCount;
+    private long _expansions;
+
+    public MultiAgentPlanner(Grid gridIn) {
+        _grid = gridIn;
+        _table = new ReservationTable(gridIn.getCellCount());
+        _search = new SpaceTimeSearch(gridIn);
+    }
+
+    public Grid getGrid() {
+        return _grid;
+    }
+
+    public ReservationTable getReservations() {
+        return _table;
+    }
+
+    public int getConflictCount() {
+        return _conflictCount;
+    }
+
+    public int getFailedCount() {
+        return _failedCount;
+    }
+
+    public long getExpansions() {
+        return _expansions;
+    }
+
+    public int[][] plan(int[] startCells, int[] goalCells) {
+        return plan(startCells, goalCells, SearchBudget.unlimited());
+    }
+
+    public int[][] plan(int[] startCells, int[] goalCells, SearchBudget budget) {
+        if (startCells.length != goalCells.length)
+            throw new IllegalArgumentException("Got " + startCells.length + " start cells and " + goalCells.length + " goal cells");
+        int agentCount = startCells.length;
+        int[][] paths = new int[agentCount][];
+        LongAdder soloExpansions = new LongAdder();
+        IntStream.range(0, agentCount).parallel()
+                .forEach(agent -> paths[agent] = planAlone(startCells[agent], goalCells[agent], budget, soloExpansions));
+
+        _table.clear();
+        _conflictCount = 0;
+        _failedCount = 0;
+        _expansions = 0;
+        _search.resetExpansions();
+        _search.addExpansions(soloExpansions.sum());
+        for (int agent = 0; agent < agentCount; agent++) {
+            int holder = _table.getHolder(startCells[agent]);
+            if (holder != ReservationTable._free)
+                throw new IllegalArgumentException("Agents " + holder + " and " + agent + " start on the same cell");
+            _table.hold(agent, startCells[agent]);
+        }
+
+        int[] pending = new int[agentCount];
+        boolean[] reachable = new boolean[agentCount];
+        for (int agent = 0; agent < agentCount; agent++) {
+            reachable[agent] = paths[agent] != null;
+            _table.release(agent, startCells[agent]);
+            if (paths[agent] != null && _table.findConflict(agent, paths[agent]) == -1)
+                _table.reserve(agent, paths[agent]);
+            else {
+                _table.hold(agent, startCells[agent]);
+                pending[_conflictCount++] = agent;
+            }
+        }
+
+        int pendingCount = _conflictCount;
+        boolean progress = true;
+        while (pendingCount > 0 && progress && !budget.isExhausted() && !budget.isExhausted(_search.getExpansions())) {
+            progress = false;
+            int remaining = 0;
+            for (int i = 0; i < pendingCount; i++) {
+                int agent = pending[i];
+                int[] path = null;
+                if (reachable[agent] && !budget.isExhausted() && !budget.isExhausted(_search.getExpansions())) {
+                    _table.release(agent, startCells[agent]);
+                    path = _search.plan(agent, startCells[agent], goalCells[agent], _table, budget);
+                    if (path == null)
+                        _table.hold(agent, startCells[agent]);
+                }
+                if (path != null) {
+                    _table.reserve(agent, path);
+                    paths[agent] = path;
+                    progress = true;
+                }
+                else
+                    pending[remaining++] = agent;
+            }
+            pendingCount = remaining;
+        }
+
+        _failedCount = pendingCount;
+        for (int i = 0; i < pendingCount; i++)
+            paths[pending[i]] = new int[] {startCells[pending[i]]};
+        _expansions = _search.getExpansions();
+        _search.resetExpansions();
+        return paths;
+    }
+
+    private int[] planAlone(int startCell, int goalCell, SearchBudget budget, LongAdder expansions) {
+        if (_grid.isJammed(startCell) || _grid.isJammed(goalCell))
+            return null;
+        if (budget.isExhausted() || budget.isExhausted(expansions.sum()))
+            return null;
+        AStarEngine engine = _engines.get();
+        engine.setBudget(budget);
+        try {
+            SearchResult result = engine.search(new GridProblem(_grid, startCell, goalCell));
+            expansions.add(result.stats.expansions);
+            return result.path;
+        }
+        finally {
+            engine.setBudget(null);
+        }
+    }
+
+    public static int getMakespan(int[][] paths) {
+        int makespan = 0;
+        for (int[] path : paths)
+            if (path != null)
+                makespan = Math.max(makespan, path.length - 1);
+        return makespan;
+    }
+
+    public static long getSumOfCosts(int[][] paths) {
+        long cost = 0;
+        for (int[] path : paths)
+            if (path != null)
+                cost += path.length - 1;
+        return cost;
+    }
+}
+
+class SpaceTimeSearch {
+    static final int _unreachable = -1;
+    static final int _defaultExpansionFactor = 64;
+
+    private final Grid _grid;
+    private final int _width;
+    private final int _height;
+    private final ExploredIndex _distance = new ExploredIndex();
+    private final ExploredIndex _reached = new ExploredIndex();
+    private final CellHeap _reverseFrontier;
+    private int _distanceStart;
+    private final LongIntMap _visited = new LongIntMap(1 << 12);
+    private int[] _nodeCell = new int[1 << 10];
+    private int[] _nodeTime = new int[1 << 10];
+    private int[] _nodeParent = new int[1 << 10];
+    private int _nodeCount;
+    private long[] _heapKey = new long[1 << 10];
+    private int[] _heapNode = new int[1 << 10];
+    private int _heapSize;
+    private long _expansions;
+    private int _expansionFactor = _defaultExpansionFactor;
+
+    public SpaceTimeSearch(Grid gridIn) {
+        _grid = gridIn;
+        _width = gridIn.getWidth();
+        _height = gridIn.getHeight();
+        _reverseFrontier = new CellHeap(gridIn.getCellCount());
+    }
+
+    public long getExpansions() {
+        return _expansions;
+    }
+
+    public void resetExpansions() {
+        _expansions = 0;
+    }
+
+    public void addExpansions(long expansions) {
+        _expansions += expansions;
+    }
+
+    public int getExpansionFactor() {
+        return _expansionFactor;
+    }
+
+    public void setExpansionFactor(int expansionFactor) {
+        _expansionFactor = expansionFactor;
+    }
+
+    public int[] plan(int agent, int startCell, int goalCell, ReservationTable table, SearchBudget budget) {
+        int parkTime = table.getEarliestParkTime(goalCell);
+        if (parkTime == ReservationTable._never || _grid.isJammed(goalCell))
+            return null;
+        startDistances(goalCell, startCell);
+        int distance = getDistance(startCell);
+        if (distance == _unreachable)
+            return null;
+
+        int horizon = Math.max(table.getMaxTime(), parkTime) + distance + _width + _height;
+        _visited.clear();
+        _nodeCount = 0;
+        _heapSize = 0;
+        _visited.put(ReservationTable.getKey(startCell, 0), addNode(startCell, 0, -1));
+        push(0, Math.max(distance, parkTime), 0);
+
+        long maxExpansions = _expansions + (long) _expansionFactor * (Math.max(distance, parkTime) + 1);
+        while (_heapSize > 0) {
+            if (_expansions >= maxExpansions || budget.isExhausted(_expansions))
+                return null;
+            int node = poll();
+            int cell = _nodeCell[node];
+            int time = _nodeTime[node];
+            _expansions++;
+            if (cell == goalCell && table.canPark(cell, time))
+                return tracePath(node);
+            if (time >= horizon)
+                continue;
+
+            int x = cell % _width;
+            int y = cell / _width;
+            for (int move = 0; move <= MapDirection._values.length; move++) {
+                int child = cell;
+                if (move < MapDirection._values.length) {
+                    MapDirection direction = MapDirection._values[move];
+                    int childX = x + direction.dx;
+                    int childY = y + direction.dy;
+                    if (childX < 0 || childY < 0 || childX >= _width || childY >= _height)
+                        continue;
+                    child = childY * _width + childX;
+                    if (_grid.isJammed(child))
+                        continue;
+                }
+                if (!table.canMove(agent, cell, child, time))
+                    continue;
+                long key = ReservationTable.getKey(child, time + 1);
+                if (_visited.containsKey(key))
+                    continue;
+                int childDistance = getDistance(child);
+                if (childDistance == _unreachable)
+                    continue;
+                int childNode = addNode(child, time + 1, node);
+                _visited.put(key, childNode);
+                push(childNode, Math.max(time + 1 + childDistance, parkTime), time + 1);
+            }
+        }
+        return null;
+    }
+
+    private void startDistances(int goalCell, int startCell) {
+        _distance.reset(_grid.getCellCount());
+        _reached.reset(_grid.getCellCount());
+        _reverseFrontier.clear();
+        _distanceStart = startCell;
+        _reached.mark(goalCell, 0);
+        _reverseFrontier.push(goalCell, getReverseKey(goalCell, 0));
+    }
+
+    private int getDistance(int cell) {
+        while (!_distance.contains(cell)) {
+            if (_reverseFrontier.isEmpty())
+                return _unreachable;
+            int current = _reverseFrontier.poll();
+            int distance = _reached.getDepth(current);
+            _distance.mark(current, distance);
+            int x = current % _width;
+            int y = current / _width;
+            for (MapDirection direction : MapDirection._values) {
+                int childX = x + direction.dx;
+                int childY = y + direction.dy;
+                if (childX < 0 || childY < 0 || childX >= _width || childY >= _height)
+                    continue;
+                int child = childY * _width + childX;
+                if (_distance.contains(child) || _grid.isJammed(child))
+                    continue;
+                if (_reached.contains(child) && _reached.getDepth(child) <= distance + 1)
+                    continue;
+                _reached.mark(child, distance + 1);
+                _reverseFrontier.push(child, getReverseKey(child, distance + 1));
+            }
+        }
+        return _distance.getDepth(cell);
+    }
+
+    private long getReverseKey(int cell, int distance) {
+        int heuristic = Math.abs(cell % _width - _distanceStart % _width) + Math.abs(cell / _width - _distanceStart / _width);
+        return ((long) (distance + heuristic) << 32) | heuristic;
+    }
+
+    private int addNode(int cell, int time, int parent) {
+        if (_nodeCount == _nodeCell.length) {
+            _nodeCell = Arrays.copyOf(_nodeCell, _nodeCount * 2);
+            _nodeTime = Arrays.copyOf(_nodeTime, _nodeCount * 2);
+            _nodeParent = Arrays.copyOf(_nodeParent, _nodeCount * 2);
+        }
+        _nodeCell[_nodeCount] = cell;
+        _nodeTime[_nodeCount] = time;
+        _nodeParent[_nodeCount] = parent;
+        return _nodeCount++;
+    }
+
+    private int[] tracePath(int node) {
+        int[] path = new int[_nodeTime[node] + 1];
+        for (int current = node; current != -1; current = _nodeParent[current])
+            path[_nodeTime[current]] = _nodeCell[current];
+        return path;
+    }
+
+    private void push(int node, int estimate, int time) {
+        if (_heapSize == _heapKey.length) {
+            _heapKey = Arrays.copyOf(_heapKey, _heapSize * 2);
+            _heapNode = Arrays.copyOf(_heapNode, _heapSize * 2);
+        }
+        long key = ((long) estimate << 32) | (Integer.MAX_VALUE - time);
+        int index = _heapSize++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (_heapKey[parent] <= key)
+                break;
+            _heapKey[index] = _heapKey[parent];
+            _heapNode[index] = _heapNode[parent];
+            index = parent;
+        }
+        _heapKey[index] = key;
+        _heapNode[index] = node;
+    }
+
+    private int poll() {
+        int node = _heapNode[0];
+        long key = _heapKey[--_heapSize];
+        int last = _heapNode[_heapSize];
+        int index = 0;
+        int half = _heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < _heapSize && _heapKey[child + 1] < _heapKey[child])
+                child++;
+            if (key <= _heapKey[child])
+                break;
+            _heapKey[index] = _heapKey[child];
+            _heapNode[index] = _heapNode[child];
+            index = child;
+        }
+        _heapKey[index] = key;
+        _heapNode[index] = last;
+        return node;
+    }
+}
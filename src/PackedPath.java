@@ -0,0 +1,206 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+class PackedPath {
+    static final int _checkpointShift = 6;
+    static final int[] _directionByOffset = new int[9];
+
+    static {
+        Arrays.fill(_directionByOffset, -1);
+        for (MapDirection direction : MapDirection._all)
+            _directionByOffset[(direction.dy + 1) * 3 + direction.dx + 1] = direction.ordinal();
+    }
+
+    private final int _startCell;
+    private final int _width;
+    private final int _length;
+    private final int _bitsPerMove;
+    private final int _movesPerWord;
+    private final long[] _moves;
+    private final int[] _checkpoints;
+
+    private PackedPath(int startCellIn, int widthIn, int lengthIn, int bitsPerMoveIn, long[] movesIn) {
+        _startCell = startCellIn;
+        _width = widthIn;
+        _length = lengthIn;
+        _bitsPerMove = bitsPerMoveIn;
+        _movesPerWord = 64 / bitsPerMoveIn;
+        _moves = movesIn;
+        _checkpoints = new int[(lengthIn >>> _checkpointShift) + 1];
+        int cell = startCellIn;
+        for (int i = 0; i < lengthIn; i++) {
+            if ((i & ((1 << _checkpointShift) - 1)) == 0)
+                _checkpoints[i >>> _checkpointShift] = cell;
+            cell = step(cell, getMove(i));
+        }
+        if ((lengthIn & ((1 << _checkpointShift) - 1)) == 0)
+            _checkpoints[lengthIn >>> _checkpointShift] = cell;
+    }
+
+    public static PackedPath fromCells(int[] cells, int width) {
+        return fromCells(cells, 0, cells.length, width);
+    }
+
+    public static PackedPath fromCells(int[] cells, int from, int to, int width) {
+        if (to <= from)
+            throw new IllegalArgumentException("A path needs at least one cell");
+        int length = to - from - 1;
+        int[] directions = new int[length];
+        boolean diagonal = false;
+        for (int i = 0; i < length; i++) {
+            directions[i] = getDirection(cells[from + i], cells[from + i + 1], width);
+            diagonal |= directions[i] >= 4;
+        }
+        return pack(cells[from], width, directions, length, diagonal ? 3 : 2);
+    }
+
+    public static PackedPath fromIterator(PrimitiveIterator.OfInt cells, int width) {
+        if (!cells.hasNext())
+            throw new IllegalArgumentException("A path needs at least one cell");
+        int startCell = cells.nextInt();
+        int previous = startCell;
+        int[] directions = new int[64];
+        int length = 0;
+        boolean diagonal = false;
+        while (cells.hasNext()) {
+            int cell = cells.nextInt();
+            if (length == directions.length)
+                directions = Arrays.copyOf(directions, length * 2);
+            directions[length] = getDirection(previous, cell, width);
+            diagonal |= directions[length++] >= 4;
+            previous = cell;
+        }
+        return pack(startCell, width, directions, length, diagonal ? 3 : 2);
+    }
+
+    private static PackedPath pack(int startCell, int width, int[] directions, int length, int bitsPerMove) {
+        int movesPerWord = 64 / bitsPerMove;
+        long[] moves = new long[(length + movesPerWord - 1) / movesPerWord];
+        for (int i = 0; i < length; i++)
+            moves[i / movesPerWord] |= (long) directions[i] << ((i % movesPerWord) * bitsPerMove);
+        return new PackedPath(startCell, width, length, bitsPerMove, moves);
+    }
+
+    private static int getDirection(int from, int to, int width) {
+        int dx = to % width - from % width;
+        int dy = to / width - from / width;
+        int direction = Math.abs(dx) <= 1 && Math.abs(dy) <= 1 ? _directionByOffset[(dy + 1) * 3 + dx + 1] : -1;
+        if (direction == -1)
+            throw new IllegalArgumentException("Cells " + from + " and " + to + " are not adjacent");
+        return direction;
+    }
+
+    public int getStartCell() {
+        return _startCell;
+    }
+
+    public int getEndCell() {
+        return getCell(_length);
+    }
+
+    public int getLength() {
+        return _length;
+    }
+
+    public int getCellCount() {
+        return _length + 1;
+    }
+
+    public int getBitsPerMove() {
+        return _bitsPerMove;
+    }
+
+    public MapDirection getDirection(int move) {
+        return MapDirection._all[getMove(move)];
+    }
+
+    private int getMove(int move) {
+        return (int) (_moves[move / _movesPerWord] >>> ((move % _movesPerWord) * _bitsPerMove)) & ((1 << _bitsPerMove) - 1);
+    }
+
+    private int step(int cell, int move) {
+        MapDirection direction = MapDirection._all[move];
+        return cell + direction.dy * _width + direction.dx;
+    }
+
+    public int getCell(int index) {
+        if (index < 0 || index > _length)
+            throw new IndexOutOfBoundsException("Cell " + index + " of a path with " + getCellCount() + " cells");
+        int checkpoint = index >>> _checkpointShift;
+        int cell = _checkpoints[checkpoint];
+        for (int i = checkpoint << _checkpointShift; i < index; i++)
+            cell = step(cell, getMove(i));
+        return cell;
+    }
+
+    public int[] toCells() {
+        int[] cells = new int[getCellCount()];
+        PrimitiveIterator.OfInt iterator = iterator();
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = iterator.nextInt();
+        return cells;
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int _index;
+            private int _cell = _startCell;
+
+            public boolean hasNext() {
+                return _index <= _length;
+            }
+
+            public int nextInt() {
+                if (_index > _length)
+                    throw new NoSuchElementException();
+                int cell = _cell;
+                if (_index < _length)
+                    _cell = step(_cell, getMove(_index));
+                _index++;
+                return cell;
+            }
+        };
+    }
+
+    public IntStream cells() {
+        return StreamSupport.intStream(Spliterators.spliterator(iterator(), getCellCount(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL), false);
+    }
+
+    public List<SearchNode> asNodes(Grid grid) {
+        return new NodeView(grid);
+    }
+
+    public long getSizeInBytes() {
+        return 8L * _moves.length + 4L * _checkpoints.length;
+    }
+
+    public String toString() {
+        return "PackedPath(start=" + _startCell + ", length=" + _length + ", bitsPerMove=" + _bitsPerMove + ")";
+    }
+
+    private class NodeView extends AbstractList<SearchNode> implements RandomAccess {
+        private final Grid _grid;
+
+        NodeView(Grid gridIn) {
+            _grid = gridIn;
+        }
+
+        public SearchNode get(int index) {
+            int cell = getCell(index);
+            return new SearchNode(new GridState(cell / _width, cell % _width, _grid.getMarker(cell)), index);
+        }
+
+        public int size() {
+            return getCellCount();
+        }
+    }
+}
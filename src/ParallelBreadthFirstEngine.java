@@ -0,0 +1,197 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+class ParallelBreadthFirstEngine extends AbstractSearchEngine {
+    static final int _chunkSize = 1 << 12;
+    static final MapDirection[] _order = {MapDirection.North, MapDirection.West, MapDirection.South, MapDirection.East};
+    static final int _unclaimed = Integer.MAX_VALUE;
+    static final int _startClaim = -1 - _order.length;
+
+    private AtomicIntegerArray _claims = new AtomicIntegerArray(0);
+    private int[] _frontier = new int[0];
+    private int[] _next = new int[0];
+    private int[] _candidates = new int[0];
+    private int[] _chunkClaims = new int[0];
+    private long[] _chunkGenerated = new long[0];
+    private final AtomicInteger _goalSlot = new AtomicInteger(_unclaimed);
+    private SearchProblem _problem;
+    private Grid _grid;
+    private int _width;
+    private int _height;
+    private int _depth;
+    private int _visitedCount;
+
+    public int getVisitedCount() {
+        return _visitedCount;
+    }
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        if (!(problem instanceof GridProblem))
+            throw new IllegalArgumentException("Parallel breadth-first search is only available for grid problems");
+
+        GridProblem gridProblem = (GridProblem) problem;
+        int cellCount = problem.getStateCount();
+        _problem = problem;
+        _grid = gridProblem.getGrid();
+        _width = gridProblem.getWidth();
+        _height = gridProblem.getHeight();
+        if (_claims.length() != cellCount)
+            _claims = new AtomicIntegerArray(cellCount);
+        for (int cell = 0; cell < cellCount; cell++)
+            _claims.setPlain(cell, _unclaimed);
+        _goalSlot.set(_unclaimed);
+
+        try {
+            int start = problem.getStartState();
+            _claims.set(start, _startClaim);
+            _visitedCount = 1;
+            if (problem.isGoalState(start))
+                return new SearchResult(new int[] {start}, null, _stats);
+
+            int frontierSize = 1;
+            _frontier = ensureCapacity(_frontier, 1);
+            _frontier[0] = start;
+            for (_depth = 0; frontierSize > 0; _depth++) {
+                int chunks = (frontierSize + _chunkSize - 1) / _chunkSize;
+                _candidates = ensureCapacity(_candidates, frontierSize << 2);
+                _chunkClaims = ensureCapacity(_chunkClaims, chunks);
+                if (_chunkGenerated.length < chunks)
+                    _chunkGenerated = new long[Math.max(chunks, _chunkGenerated.length * 2)];
+
+                int size = frontierSize;
+                forEachChunk(chunks, chunk -> expandChunk(chunk, size));
+                _stats.expansions += frontierSize;
+                if (_goalSlot.get() != _unclaimed) {
+                    for (int chunk = 0; chunk < chunks; chunk++)
+                        _stats.generated += _chunkGenerated[chunk];
+                    return new SearchResult(buildPath(_candidates[_goalSlot.get()], _depth + 1), null, _stats);
+                }
+                forEachChunk(chunks, chunk -> countChunk(chunk, size));
+
+                int nextSize = 0;
+                long generated = 0;
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int claims = _chunkClaims[chunk];
+                    _chunkClaims[chunk] = nextSize;
+                    nextSize += claims;
+                    generated += _chunkGenerated[chunk];
+                }
+                _stats.generated += generated;
+                _stats.duplicates += generated - nextSize;
+                _visitedCount += nextSize;
+
+                _next = ensureCapacity(_next, nextSize);
+                forEachChunk(chunks, chunk -> compactChunk(chunk, size));
+
+                int[] swap = _frontier;
+                _frontier = _next;
+                _next = swap;
+                frontierSize = nextSize;
+                _stats.updateFrontier(frontierSize);
+            }
+            return new SearchResult(null, null, _stats);
+        }
+        finally {
+            _problem = null;
+            _grid = null;
+        }
+    }
+
+    private void forEachChunk(int chunks, IntConsumer action) {
+        IntStream range = IntStream.range(0, chunks);
+        (chunks > 1 && _listener == null ? range.parallel() : range).forEach(action);
+    }
+
+    private void expandChunk(int chunk, int frontierSize) {
+        int end = Math.min(frontierSize, (chunk + 1) * _chunkSize);
+        long generated = 0;
+        for (int rank = chunk * _chunkSize; rank < end; rank++) {
+            int cell = _frontier[rank];
+            if (_listener != null)
+                _listener.onExpand(_problem, cell, _depth);
+            int x = cell % _width;
+            int y = cell / _width;
+            int slot = rank << 2;
+            for (int i = 0; i < _order.length; i++) {
+                MapDirection direction = _order[i];
+                int childX = x + direction.dx;
+                int childY = y + direction.dy;
+                int child = childY * _width + childX;
+                _candidates[slot + i] = -1;
+                if (childX < 0 || childY < 0 || childX >= _width || childY >= _height || _grid.isJammed(child))
+                    continue;
+                generated++;
+                int claim = _claims.getPlain(child);
+                if (claim < 0)
+                    continue;
+                if (claim == _unclaimed && _listener != null)
+                    _listener.onGenerate(_problem, child, _depth + 1);
+                _candidates[slot + i] = child;
+                if (claim > slot + i)
+                    lowerTo(_claims, child, slot + i);
+                if (_problem.isGoalState(child))
+                    lowerTo(_goalSlot, slot + i);
+            }
+        }
+        _chunkGenerated[chunk] = generated;
+    }
+
+    private void countChunk(int chunk, int frontierSize) {
+        int claims = 0;
+        int end = Math.min(frontierSize, (chunk + 1) * _chunkSize) << 2;
+        for (int slot = (chunk * _chunkSize) << 2; slot < end; slot++) {
+            int child = _candidates[slot];
+            if (child == -1)
+                continue;
+            if (_claims.getPlain(child) == slot)
+                claims++;
+            else
+                _candidates[slot] = -1;
+        }
+        _chunkClaims[chunk] = claims;
+    }
+
+    private void compactChunk(int chunk, int frontierSize) {
+        int offset = _chunkClaims[chunk];
+        int end = Math.min(frontierSize, (chunk + 1) * _chunkSize) << 2;
+        for (int slot = (chunk * _chunkSize) << 2; slot < end; slot++) {
+            int child = _candidates[slot];
+            if (child == -1)
+                continue;
+            _claims.setPlain(child, -1 - (slot & 3));
+            _next[offset++] = child;
+        }
+    }
+
+    private static void lowerTo(AtomicIntegerArray claims, int cell, int slot) {
+        int current = claims.get(cell);
+        while (slot < current && !claims.compareAndSet(cell, current, slot))
+            current = claims.get(cell);
+    }
+
+    private static void lowerTo(AtomicInteger value, int slot) {
+        int current = value.get();
+        while (slot < current && !value.compareAndSet(current, slot))
+            current = value.get();
+    }
+
+    private int[] buildPath(int goalCell, int length) {
+        int[] path = new int[length + 1];
+        int cell = goalCell;
+        for (int i = length; i >= 0; i--) {
+            path[i] = cell;
+            if (i > 0) {
+                int claim = _claims.get(cell);
+                MapDirection direction = _order[claim < 0 ? -1 - claim : claim & 3].opposite();
+                cell += direction.dy * _width + direction.dx;
+            }
+        }
+        return path;
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return array.length >= capacity ? array : new int[Math.max(capacity, array.length + (array.length >>> 1))];
+    }
+}
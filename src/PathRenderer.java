@@ -0,0 +1,233 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+class PathRenderer {
+    static final char _exploredGlyph = '+';
+    static final char _pathGlyph = '.';
+    static final char _startGlyph = '#';
+    static final char _headGlyph = '@';
+    static final int _cellColumns = 2;
+
+    private final int _width;
+    private final int _height;
+    private final WritableByteChannel _out;
+    private final ByteBuffer _buffer = ByteBuffer.allocate(1 << 16);
+    private final char[] _cells;
+    private final int[] _dirty;
+    private final boolean[] _isDirty;
+    private final int _viewWidth;
+    private final int _viewHeight;
+    private int _dirtyCount;
+    private int _viewX;
+    private int _viewY;
+    private boolean _needsRedraw = true;
+
+    private int[] _path = new int[0];
+    private int[] _exploredOrder = new int[0];
+    private int[] _depthOffsets = new int[1];
+    private int _step;
+
+    public PathRenderer(Grid gridIn) {
+        this(gridIn, Channels.newChannel(new FileOutputStream(FileDescriptor.out)),
+                getTerminalSize("COLUMNS", 80) / _cellColumns, getTerminalSize("LINES", 24) - 2);
+    }
+
+    public PathRenderer(Grid gridIn, WritableByteChannel outIn, int viewWidthIn, int viewHeightIn) {
+        _width = gridIn.getWidth();
+        _height = gridIn.getHeight();
+        _out = outIn;
+        _viewWidth = Math.max(1, Math.min(viewWidthIn, _width));
+        _viewHeight = Math.max(1, Math.min(viewHeightIn, _height));
+        _cells = new char[gridIn.getCellCount()];
+        _dirty = new int[gridIn.getCellCount()];
+        _isDirty = new boolean[gridIn.getCellCount()];
+        for (int cell = 0; cell < _cells.length; cell++)
+            _cells[cell] = (char) ('0' + gridIn.getMarker(cell));
+    }
+
+    private static int getTerminalSize(String variable, int fallback) {
+        try {
+            String value = System.getenv(variable);
+            return value == null ? fallback : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    public void setPath(int[] path, ExploredIndex explored) {
+        _path = path == null ? new int[0] : path;
+        _step = 0;
+
+        int maxDepth = 0;
+        for (int cell = 0; cell < explored.getStateCount(); cell++)
+            maxDepth = Math.max(maxDepth, explored.getDepth(cell));
+        _depthOffsets = new int[maxDepth + 2];
+        for (int cell = 0; cell < explored.getStateCount(); cell++)
+            if (explored.contains(cell))
+                _depthOffsets[explored.getDepth(cell) + 1]++;
+        for (int depth = 1; depth < _depthOffsets.length; depth++)
+            _depthOffsets[depth] += _depthOffsets[depth - 1];
+
+        _exploredOrder = new int[explored.size()];
+        int[] next = _depthOffsets.clone();
+        for (int cell = 0; cell < explored.getStateCount(); cell++)
+            if (explored.contains(cell))
+                _exploredOrder[next[explored.getDepth(cell)]++] = cell;
+    }
+
+    public int getStepCount() {
+        return _path.length;
+    }
+
+    public boolean hasNextStep() {
+        return _step < _path.length;
+    }
+
+    public void renderStep() {
+        int step = _step++;
+        revealDepth(step);
+        if (step > 0)
+            setCell(_path[step - 1], step - 1 == 0 ? _startGlyph : _pathGlyph);
+        setCell(_path[step], step == 0 ? _startGlyph : _headGlyph);
+        follow(_path[step]);
+        flush("Step " + step + "/" + (_path.length - 1) + " (" + (_path[step] / _width) + "," + (_path[step] % _width) + ")");
+    }
+
+    public void renderExplored() {
+        for (int depth = 0; depth + 1 < _depthOffsets.length; depth++)
+            revealDepth(depth);
+        flush("Explored " + _exploredOrder.length + " cells");
+    }
+
+    public CompletableFuture<Void> replay(ScheduledExecutorService scheduler, long periodMillis) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> {
+            if (done.isDone())
+                return;
+            try {
+                if (hasNextStep())
+                    renderStep();
+                if (!hasNextStep())
+                    done.complete(null);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        }, 0, Math.max(1, periodMillis), TimeUnit.MILLISECONDS);
+        done.whenComplete((result, failure) -> task.cancel(false));
+        return done;
+    }
+
+    private void revealDepth(int depth) {
+        if (depth + 1 >= _depthOffsets.length)
+            return;
+        for (int i = _depthOffsets[depth]; i < _depthOffsets[depth + 1]; i++) {
+            int cell = _exploredOrder[i];
+            char glyph = _cells[cell];
+            if (glyph != _startGlyph && glyph != _pathGlyph && glyph != _headGlyph)
+                setCell(cell, _exploredGlyph);
+        }
+    }
+
+    private void setCell(int cell, char glyph) {
+        if (_cells[cell] == glyph)
+            return;
+        _cells[cell] = glyph;
+        if (!_isDirty[cell]) {
+            _isDirty[cell] = true;
+            _dirty[_dirtyCount++] = cell;
+        }
+    }
+
+    private void follow(int cell) {
+        int x = cell % _width;
+        int y = cell / _width;
+        if (x < _viewX || x >= _viewX + _viewWidth) {
+            _viewX = Math.max(0, Math.min(x - _viewWidth / 2, _width - _viewWidth));
+            _needsRedraw = true;
+        }
+        if (y < _viewY || y >= _viewY + _viewHeight) {
+            _viewY = Math.max(0, Math.min(y - _viewHeight / 2, _height - _viewHeight));
+            _needsRedraw = true;
+        }
+    }
+
+    private void flush(String status) {
+        if (_needsRedraw) {
+            put("\033[H\033[2J");
+            for (int y = 0; y < _viewHeight; y++) {
+                moveTo(0, y);
+                int rowStart = (_viewY + y) * _width + _viewX;
+                for (int x = 0; x < _viewWidth; x++) {
+                    put(_cells[rowStart + x]);
+                    put(' ');
+                }
+            }
+            _needsRedraw = false;
+        }
+        else {
+            for (int i = 0; i < _dirtyCount; i++) {
+                int cell = _dirty[i];
+                int x = cell % _width - _viewX;
+                int y = cell / _width - _viewY;
+                if (x >= 0 && y >= 0 && x < _viewWidth && y < _viewHeight) {
+                    moveTo(x, y);
+                    put(_cells[cell]);
+                }
+            }
+        }
+        for (int i = 0; i < _dirtyCount; i++)
+            _isDirty[_dirty[i]] = false;
+        _dirtyCount = 0;
+
+        moveTo(0, _viewHeight);
+        put("\033[2K");
+        put(status);
+        drain();
+    }
+
+    private void moveTo(int x, int y) {
+        put("\033[");
+        putNumber(y + 1);
+        put(';');
+        putNumber(x * _cellColumns + 1);
+        put('H');
+    }
+
+    private void putNumber(int value) {
+        if (value >= 10)
+            putNumber(value / 10);
+        put((char) ('0' + value % 10));
+    }
+
+    private void put(String text) {
+        for (int i = 0; i < text.length(); i++)
+            put(text.charAt(i));
+    }
+
+    private void put(char c) {
+        if (!_buffer.hasRemaining())
+            drain();
+        _buffer.put((byte) c);
+    }
+
+    private void drain() {
+        _buffer.flip();
+        try {
+            while (_buffer.hasRemaining())
+                _out.write(_buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            _buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.Arrays;
+
+class ReservationTable {
+    static final int _free = -1;
+    static final int _never = Integer.MAX_VALUE;
+
+    private final LongIntMap _reservations;
+    private final int[] _parkedSince;
+    private final int[] _parkedAgent;
+    private final int[] _lastReserved;
+    private final int[] _heldBy;
+    private int _maxTime;
+
+    public ReservationTable(int cellCountIn) {
+        _reservations = new LongIntMap(1 << 10);
+        _parkedSince = new int[cellCountIn];
+        _parkedAgent = new int[cellCountIn];
+        _lastReserved = new int[cellCountIn];
+        _heldBy = new int[cellCountIn];
+        clear();
+    }
+
+    static long getKey(int cell, int time) {
+        return ((long) time << 32) | cell;
+    }
+
+    public void clear() {
+        _reservations.clear();
+        Arrays.fill(_parkedSince, _never);
+        Arrays.fill(_parkedAgent, _free);
+        Arrays.fill(_lastReserved, -1);
+        Arrays.fill(_heldBy, _free);
+        _maxTime = 0;
+    }
+
+    public int size() {
+        return _reservations.size();
+    }
+
+    public int getMaxTime() {
+        return _maxTime;
+    }
+
+    public int getAgent(int cell, int time) {
+        if (_heldBy[cell] != _free)
+            return _heldBy[cell];
+        int agent = _reservations.get(getKey(cell, time));
+        if (agent != _free)
+            return agent;
+        return time >= _parkedSince[cell] ? _parkedAgent[cell] : _free;
+    }
+
+    public boolean isFree(int agent, int cell, int time) {
+        int occupant = getAgent(cell, time);
+        return occupant == _free || occupant == agent;
+    }
+
+    public boolean canMove(int agent, int from, int to, int time) {
+        if (!isFree(agent, to, time + 1))
+            return false;
+        if (from == to)
+            return true;
+        int swapped = getAgent(to, time);
+        return swapped == _free || swapped == agent || swapped != getAgent(from, time + 1);
+    }
+
+    public boolean canPark(int cell, int time) {
+        return time >= getEarliestParkTime(cell);
+    }
+
+    public int getEarliestParkTime(int cell) {
+        return _parkedSince[cell] == _never && _heldBy[cell] == _free ? _lastReserved[cell] + 1 : _never;
+    }
+
+    public int findConflict(int agent, int[] path) {
+        if (!isFree(agent, path[0], 0))
+            return 0;
+        for (int time = 1; time < path.length; time++)
+            if (!canMove(agent, path[time - 1], path[time], time - 1))
+                return time;
+        int arrival = path.length - 1;
+        return canPark(path[arrival], arrival) ? -1 : arrival;
+    }
+
+    public int getHolder(int cell) {
+        return _heldBy[cell];
+    }
+
+    public void hold(int agent, int cell) {
+        _heldBy[cell] = agent;
+    }
+
+    public void release(int agent, int cell) {
+        if (_heldBy[cell] == agent)
+            _heldBy[cell] = _free;
+    }
+
+    public void reserve(int agent, int[] path) {
+        for (int time = 0; time < path.length; time++) {
+            int cell = path[time];
+            _reservations.put(getKey(cell, time), agent);
+            _lastReserved[cell] = Math.max(_lastReserved[cell], time);
+        }
+        int arrival = path.length - 1;
+        _parkedSince[path[arrival]] = arrival;
+        _parkedAgent[path[arrival]] = agent;
+        _maxTime = Math.max(_maxTime, arrival);
+    }
+}
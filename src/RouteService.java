@@ -0,0 +1,362 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RouteService {
+    static final int _defaultPort = 8080;
+    static final String _moveSymbols = "NESW";
+
+    private final Map<String, Grid> _grids = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<DistanceField>> _pending = new ConcurrentHashMap<>();
+    private final DistanceFieldCache _cache;
+    private final LatencyHistogram _latency = new LatencyHistogram();
+    private final LongAdder _requests = new LongAdder();
+    private final LongAdder _failures = new LongAdder();
+    private final LongAdder _coalesced = new LongAdder();
+    private final LongAdder _fieldLookups = new LongAdder();
+    private volatile long _windowStartNanos = System.nanoTime();
+    private volatile long _cacheHitsBase;
+    private volatile long _cacheMissesBase;
+    private HttpServer _server;
+    private ExecutorService _executor;
+
+    public RouteService(DistanceFieldCache cacheIn) {
+        _cache = cacheIn;
+    }
+
+    public void addGrid(String name, Grid grid) {
+        _grids.put(name, grid);
+    }
+
+    public Map<String, Grid> getGrids() {
+        return _grids;
+    }
+
+    public synchronized void start(int port) throws IOException {
+        if (_server != null)
+            throw new IllegalStateException("Route service is already running on port " + getPort());
+        _executor = createExecutor();
+        _server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        _server.setExecutor(_executor);
+        _server.createContext("/route", exchange -> handle(exchange, this::handleRoute));
+        _server.createContext("/metrics", exchange -> handle(exchange, this::handleMetrics));
+        _server.createContext("/grids", exchange -> handle(exchange, this::handleGrids));
+        _server.start();
+    }
+
+    public synchronized void stop() {
+        if (_server == null)
+            return;
+        _server.stop(0);
+        _executor.shutdown();
+        try {
+            _executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        _server = null;
+        _executor = null;
+    }
+
+    public synchronized int getPort() {
+        return _server == null ? -1 : _server.getAddress().getPort();
+    }
+
+    static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public RouteAnswer route(String gridName, int startCell, int goalCell) {
+        Grid grid = _grids.get(gridName);
+        if (grid == null)
+            throw new IllegalArgumentException("Unknown grid " + gridName);
+        checkCell(grid, startCell, "start");
+        checkCell(grid, goalCell, "goal");
+
+        String key = gridName + ":" + goalCell;
+        CompletableFuture<DistanceField> created = new CompletableFuture<>();
+        CompletableFuture<DistanceField> pending = _pending.putIfAbsent(key, created);
+        DistanceField field;
+        if (pending != null) {
+            _coalesced.increment();
+            try {
+                field = pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        else {
+            _fieldLookups.increment();
+            try {
+                field = _cache.get(grid, goalCell);
+                created.complete(field);
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            } finally {
+                _pending.remove(key, created);
+            }
+        }
+        return new RouteAnswer(gridName, startCell, goalCell, field.getPath(startCell), grid.getWidth());
+    }
+
+    private static void checkCell(Grid grid, int cell, String name) {
+        if (cell < 0 || cell >= grid.getCellCount())
+            throw new IllegalArgumentException("The " + name + " cell is outside the grid");
+        if (grid.isJammed(cell))
+            throw new IllegalArgumentException("The " + name + " cell is jammed");
+    }
+
+    static String encodeMoves(int[] path, int width) {
+        StringBuilder moves = new StringBuilder();
+        int run = 0;
+        char previous = 0;
+        for (int i = 1; i < path.length; i++) {
+            int delta = path[i] - path[i - 1];
+            char move = _moveSymbols.charAt(delta == -width ? 0 : delta == 1 ? 1 : delta == width ? 2 : 3);
+            if (move == previous) {
+                run++;
+                continue;
+            }
+            appendRun(moves, previous, run);
+            previous = move;
+            run = 1;
+        }
+        appendRun(moves, previous, run);
+        return moves.toString();
+    }
+
+    private static void appendRun(StringBuilder moves, char move, int run) {
+        if (run == 0)
+            return;
+        moves.append(move);
+        if (run > 1)
+            moves.append(run);
+    }
+
+    static int[] decodeMoves(int startCell, String moves, int width) {
+        int length = 0;
+        for (int i = 0; i < moves.length(); ) {
+            int end = i + 1;
+            while (end < moves.length() && Character.isDigit(moves.charAt(end)))
+                end++;
+            length += end > i + 1 ? Integer.parseInt(moves.substring(i + 1, end)) : 1;
+            i = end;
+        }
+
+        int[] path = new int[length + 1];
+        path[0] = startCell;
+        int offset = 1;
+        for (int i = 0; i < moves.length(); ) {
+            MapDirection direction = MapDirection._values[_moveSymbols.indexOf(moves.charAt(i))];
+            int end = i + 1;
+            while (end < moves.length() && Character.isDigit(moves.charAt(end)))
+                end++;
+            int run = end > i + 1 ? Integer.parseInt(moves.substring(i + 1, end)) : 1;
+            for (int step = 0; step < run; step++, offset++)
+                path[offset] = path[offset - 1] + direction.dy * width + direction.dx;
+            i = end;
+        }
+        return path;
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        long start = System.nanoTime();
+        _requests.increment();
+        int status = 200;
+        String body;
+        try {
+            body = handler.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+        } catch (IllegalArgumentException e) {
+            _failures.increment();
+            status = 400;
+            body = "{\"error\":\"" + escape(e.getMessage()) + "\"}";
+        } catch (RuntimeException e) {
+            _failures.increment();
+            status = 500;
+            body = "{\"error\":\"" + escape(String.valueOf(e)) + "\"}";
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        _latency.record(System.nanoTime() - start);
+    }
+
+    private String handleRoute(Map<String, String> query) {
+        String gridName = query.getOrDefault("grid", "1");
+        Grid grid = _grids.get(gridName);
+        if (grid == null)
+            throw new IllegalArgumentException("Unknown grid " + gridName);
+        int startCell = parseCell(grid, query.get("start"), grid.getStartCell());
+        int goalCell = parseCell(grid, query.get("goal"), grid.getGoalCell());
+        return route(gridName, startCell, goalCell).toJson();
+    }
+
+    private static int parseCell(Grid grid, String value, int fallback) {
+        if (value == null)
+            return fallback;
+        int comma = value.indexOf(',');
+        try {
+            if (comma == -1)
+                return Integer.parseInt(value);
+            int x = Integer.parseInt(value.substring(0, comma).trim());
+            int y = Integer.parseInt(value.substring(comma + 1).trim());
+            if (x < 0 || y < 0 || x >= grid.getWidth() || y >= grid.getHeight())
+                throw new IllegalArgumentException("Cell " + value + " is outside the grid");
+            return grid.toCell(x, y);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cannot parse cell " + value);
+        }
+    }
+
+    private String handleMetrics(Map<String, String> query) {
+        String metrics = getMetrics();
+        if ("true".equals(query.get("reset")))
+            resetMetrics();
+        return metrics;
+    }
+
+    private String handleGrids(Map<String, String> query) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, Grid> entry : new TreeMap<>(_grids).entrySet()) {
+            if (json.length() > 1)
+                json.append(',');
+            Grid grid = entry.getValue();
+            json.append('"').append(escape(entry.getKey())).append("\":{\"width\":").append(grid.getWidth())
+                    .append(",\"height\":").append(grid.getHeight()).append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    public String getMetrics() {
+        double seconds = (System.nanoTime() - _windowStartNanos) / 1e9;
+        long count = _latency.getCount();
+        return "{\"requests\":" + _requests.sum()
+                + ",\"failures\":" + _failures.sum()
+                + ",\"fieldLookups\":" + _fieldLookups.sum()
+                + ",\"coalesced\":" + _coalesced.sum()
+                + ",\"cacheHits\":" + (_cache.getHits() - _cacheHitsBase)
+                + ",\"cacheMisses\":" + (_cache.getMisses() - _cacheMissesBase)
+                + ",\"throughput\":" + String.format("%.1f", seconds > 0 ? count / seconds : 0.0)
+                + ",\"p50Micros\":" + _latency.getPercentile(50) / 1000
+                + ",\"p99Micros\":" + _latency.getPercentile(99) / 1000
+                + "}";
+    }
+
+    public void resetMetrics() {
+        _latency.reset();
+        _requests.reset();
+        _failures.reset();
+        _coalesced.reset();
+        _fieldLookups.reset();
+        _cacheHitsBase = _cache.getHits();
+        _cacheMissesBase = _cache.getMisses();
+        _windowStartNanos = System.nanoTime();
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty())
+            return query;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals == -1 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals == -1 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    static String escape(String text) {
+        if (text == null)
+            return "";
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\': escaped.append("\\\\"); break;
+                case '"': escaped.append("\\\""); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default:
+                    if (c < 0x20)
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    else
+                        escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    public static void serve(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : _defaultPort;
+        RouteService service = new RouteService(DistanceFieldCache.getDefault());
+        for (int gridId = 1; gridId <= 6; gridId++)
+            service.addGrid(String.valueOf(gridId), AutonomousVehicleNavigator.GridFactory.getGrid(gridId));
+        for (int i = 1; i < args.length; i++) {
+            Path path = Path.of(args[i]);
+            service.addGrid(path.getFileName().toString(), AutonomousVehicleNavigator.GridFactory.loadGrid(path));
+        }
+
+        service.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        System.out.println("Route service listening on http://localhost:" + service.getPort()
+                + "/route with grids " + new TreeMap<>(service.getGrids()).keySet());
+    }
+
+    interface Handler {
+        String handle(Map<String, String> query);
+    }
+}
+
+class RouteAnswer {
+    public final String grid;
+    public final int startCell;
+    public final int goalCell;
+    public final int[] path;
+    public final String moves;
+
+    public RouteAnswer(String gridIn, int startCellIn, int goalCellIn, int[] pathIn, int widthIn) {
+        grid = gridIn;
+        startCell = startCellIn;
+        goalCell = goalCellIn;
+        path = pathIn;
+        moves = pathIn == null ? null : RouteService.encodeMoves(pathIn, widthIn);
+    }
+
+    public boolean isSolved() {
+        return path != null;
+    }
+
+    public String toJson() {
+        return "{\"grid\":\"" + RouteService.escape(grid) + "\",\"start\":" + startCell + ",\"goal\":" + goalCell
+                + ",\"length\":" + (path == null ? -1 : path.length - 1)
+                + ",\"moves\":" + (moves == null ? "null" : "\"" + moves + "\"") + "}";
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.concurrent.TimeUnit;
+
+class SearchBudget {
+    static final int _clockCheckMask = 63;
+
+    private final long _deadlineNanos;
+    private final boolean _hasDeadline;
+    private final long _maxExpansions;
+    private volatile boolean _cancelled;
+
+    public SearchBudget(long timeout, TimeUnit unit, long maxExpansionsIn) {
+        _hasDeadline = timeout >= 0;
+        _deadlineNanos = System.nanoTime() + (_hasDeadline ? unit.toNanos(timeout) : 0);
+        _maxExpansions = maxExpansionsIn < 0 ? Long.MAX_VALUE : maxExpansionsIn;
+    }
+
+    public static SearchBudget unlimited() {
+        return new SearchBudget(-1, TimeUnit.NANOSECONDS, -1);
+    }
+
+    /**
+     * The deadline starts counting when the budget is created, not when a search first checks it.
+     */
+    public static SearchBudget ofMillis(long millis) {
+        return new SearchBudget(millis, TimeUnit.MILLISECONDS, -1);
+    }
+
+    public static SearchBudget ofExpansions(long maxExpansions) {
+        return new SearchBudget(-1, TimeUnit.NANOSECONDS, maxExpansions);
+    }
+
+    public void cancel() {
+        _cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return _cancelled;
+    }
+
+    public long getRemainingNanos() {
+        return _hasDeadline ? Math.max(0, _deadlineNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    public long getMaxExpansions() {
+        return _maxExpansions;
+    }
+
+    public boolean isExhausted() {
+        return _cancelled || (_hasDeadline && System.nanoTime() - _deadlineNanos >= 0);
+    }
+
+    public boolean isExhausted(long expansions) {
+        if (_cancelled || expansions >= _maxExpansions)
+            return true;
+        return (expansions & _clockCheckMask) == 0 && isExhausted();
+    }
+}
@@ -0,0 +1,78 @@
+interface SearchEngine {
+    SearchResult search(SearchProblem problem);
+
+    void setListener(SearchListener listener);
+}
+
+class SearchResult {
+    public final int[] path;
+    public final ExploredIndex explored;
+    public final SearchStats stats;
+
+    public SearchResult(int[] pathIn, ExploredIndex exploredIn, SearchStats statsIn) {
+        path = pathIn;
+        explored = exploredIn;
+        stats = statsIn;
+    }
+
+    public boolean isSolved() {
+        return path != null;
+    }
+
+    static long getPathCost(SearchProblem problem, int[] path) {
+        long cost = 0;
+        for (int i = 1; i < path.length; i++)
+            cost += problem.getCost(path[i - 1], path[i]);
+        return cost;
+    }
+
+    static int[] tracePath(int[] parent, int lastState) {
+        int length = 0;
+        for (int state = lastState; state != -1; state = parent[state])
+            length++;
+
+        int[] path = new int[length];
+        for (int state = lastState, i = length - 1; state != -1; state = parent[state], i--)
+            path[i] = state;
+        return path;
+    }
+}
+
+class SearchStats {
+    public String engine;
+    public long expansions;
+    public long generated;
+    public long duplicates;
+    public long cutoffs;
+    public int peakFrontier;
+    public int pathLength;
+    public long pathCost;
+    public long elapsedNanos;
+
+    void reset(String engineIn) {
+        engine = engineIn;
+        expansions = 0;
+        generated = 0;
+        duplicates = 0;
+        cutoffs = 0;
+        peakFrontier = 0;
+        pathLength = -1;
+        pathCost = -1;
+        elapsedNanos = 0;
+    }
+
+    void updateFrontier(int size) {
+        if (size > peakFrontier)
+            peakFrontier = size;
+    }
+
+    public boolean isSolved() {
+        return pathLength != -1;
+    }
+
+    public String toString() {
+        return engine + ": expansions=" + expansions + ", generated=" + generated + ", duplicates=" + duplicates
+                + ", cutoffs=" + cutoffs + ", peakFrontier=" + peakFrontier + ", pathLength=" + pathLength + ", pathCost=" + pathCost
+                + ", elapsed=" + elapsedNanos / 1000 + "us";
+    }
+}
@@ -0,0 +1,75 @@
+interface SearchListener {
+    default void onExpand(SearchProblem problem, int state, int depth) {
+    }
+
+    default void onGenerate(SearchProblem problem, int state, int depth) {
+    }
+
+    default void onDuplicate(SearchProblem problem, int state, int depth) {
+    }
+
+    default void onCutoff(SearchProblem problem, int state, int depth) {
+    }
+
+    default void onSolveFinished(SearchProblem problem, SearchStats stats) {
+    }
+
+    static SearchListener combine(SearchListener first, SearchListener second) {
+        if (first == null)
+            return second;
+        if (second == null)
+            return first;
+        return new SearchListener() {
+            public void onExpand(SearchProblem problem, int state, int depth) {
+                first.onExpand(problem, state, depth);
+                second.onExpand(problem, state, depth);
+            }
+
+            public void onGenerate(SearchProblem problem, int state, int depth) {
+                first.onGenerate(problem, state, depth);
+                second.onGenerate(problem, state, depth);
+            }
+
+            public void onDuplicate(SearchProblem problem, int state, int depth) {
+                first.onDuplicate(problem, state, depth);
+                second.onDuplicate(problem, state, depth);
+            }
+
+            public void onCutoff(SearchProblem problem, int state, int depth) {
+                first.onCutoff(problem, state, depth);
+                second.onCutoff(problem, state, depth);
+            }
+
+            public void onSolveFinished(SearchProblem problem, SearchStats stats) {
+                first.onSolveFinished(problem, stats);
+                second.onSolveFinished(problem, stats);
+            }
+        };
+    }
+}
+
+class ConsoleTraceListener implements SearchListener {
+    public void onExpand(SearchProblem problem, int state, int depth) {
+        trace(depth, "Expanding " + problem.describe(state) + " at depth " + depth);
+    }
+
+    public void onGenerate(SearchProblem problem, int state, int depth) {
+        trace(depth, "Checking " + problem.describe(state) + " at depth " + depth);
+    }
+
+    public void onDuplicate(SearchProblem problem, int state, int depth) {
+        trace(depth, "This node is already explored");
+    }
+
+    public void onCutoff(SearchProblem problem, int state, int depth) {
+        trace(depth, "CutOff: " + problem.describe(state) + " at depth " + depth);
+    }
+
+    public void onSolveFinished(SearchProblem problem, SearchStats stats) {
+        System.out.println(stats);
+    }
+
+    private static void trace(int depth, String message) {
+        System.out.println(" ".repeat(depth) + message);
+    }
+}
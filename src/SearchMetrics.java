@@ -0,0 +1,65 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+class SearchMetrics implements SearchListener {
+    private final LongAdder _solves = new LongAdder();
+    private final LongAdder _solved = new LongAdder();
+    private final LongAdder _expansions = new LongAdder();
+    private final LongAdder _generated = new LongAdder();
+    private final LongAdder _duplicates = new LongAdder();
+    private final LongAdder _cutoffs = new LongAdder();
+    private final LatencyHistogram _latency = new LatencyHistogram();
+    private final LongAccumulator _peakFrontier = new LongAccumulator(Math::max, 0);
+
+    public void onSolveFinished(SearchProblem problem, SearchStats stats) {
+        _solves.increment();
+        if (stats.isSolved())
+            _solved.increment();
+        _expansions.add(stats.expansions);
+        _generated.add(stats.generated);
+        _duplicates.add(stats.duplicates);
+        _cutoffs.add(stats.cutoffs);
+        _latency.record(stats.elapsedNanos);
+        _peakFrontier.accumulate(stats.peakFrontier);
+    }
+
+    public LatencyHistogram getLatency() {
+        return _latency;
+    }
+
+    public long getSolves() {
+        return _solves.sum();
+    }
+
+    public long getSolved() {
+        return _solved.sum();
+    }
+
+    public long getExpansions() {
+        return _expansions.sum();
+    }
+
+    public long getGenerated() {
+        return _generated.sum();
+    }
+
+    public long getDuplicates() {
+        return _duplicates.sum();
+    }
+
+    public long getCutoffs() {
+        return _cutoffs.sum();
+    }
+
+    public int getPeakFrontier() {
+        return (int) _peakFrontier.get();
+    }
+
+    public String toString() {
+        return "solves=" + getSolves() + ", solved=" + getSolved() + ", expansions=" + getExpansions()
+                + ", generated=" + getGenerated() + ", duplicates=" + getDuplicates() + ", cutoffs=" + getCutoffs()
+                + ", peakFrontier=" + getPeakFrontier()
+                + ", p50=" + _latency.getPercentile(50) / 1000 + "us"
+                + ", p99=" + _latency.getPercentile(99) / 1000 + "us";
+    }
+}
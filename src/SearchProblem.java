@@ -0,0 +1,29 @@
+interface SearchProblem {
+    int getStateCount();
+
+    int getStartState();
+
+    boolean isGoalState(int state);
+
+    int getMaxSuccessors();
+
+    int getSuccessors(int state, int[] buffer);
+
+    default int getPredecessors(int state, int[] buffer) {
+        throw new UnsupportedOperationException("Problem is not reversible");
+    }
+
+    default int getGoalState() {
+        return -1;
+    }
+
+    default int getCost(int state, int successor) {
+        return 1;
+    }
+
+    default int getHeuristic(int state) {
+        return 0;
+    }
+
+    String describe(int state);
+}
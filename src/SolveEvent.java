@@ -0,0 +1,44 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("york.search.Solve")
+@Label("Search Solve")
+@Category({"York AI Search"})
+@Description("One search engine run with its expansion counters")
+@StackTrace(false)
+class SolveEvent extends Event {
+    @Label("Engine")
+    String engine;
+
+    @Label("Expansions")
+    long expansions;
+
+    @Label("Generated")
+    long generated;
+
+    @Label("Duplicates")
+    long duplicates;
+
+    @Label("Cutoffs")
+    long cutoffs;
+
+    @Label("Peak Frontier")
+    int peakFrontier;
+
+    @Label("Path Length")
+    int pathLength;
+
+    void record(SearchStats stats) {
+        engine = stats.engine;
+        expansions = stats.expansions;
+        generated = stats.generated;
+        duplicates = stats.duplicates;
+        cutoffs = stats.cutoffs;
+        peakFrontier = stats.peakFrontier;
+        pathLength = stats.pathLength;
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.BitSet;
+
+class StateGraph implements SearchProblem {
+    private final SearchProblem _source;
+    private final int _stateCount;
+    private final int _startState;
+    private final int[] _offsets;
+    private final int[] _targets;
+    private final BitSet _goals;
+    private final int _maxSuccessors;
+
+    private StateGraph(SearchProblem sourceIn, int[] offsetsIn, int[] targetsIn, BitSet goalsIn, int maxSuccessorsIn) {
+        _source = sourceIn;
+        _stateCount = sourceIn.getStateCount();
+        _startState = sourceIn.getStartState();
+        _offsets = offsetsIn;
+        _targets = targetsIn;
+        _goals = goalsIn;
+        _maxSuccessors = maxSuccessorsIn;
+    }
+
+    public static StateGraph compile(SearchProblem problem) {
+        int stateCount = problem.getStateCount();
+        int[] buffer = new int[problem.getMaxSuccessors()];
+        int[] offsets = new int[stateCount + 1];
+        BitSet goals = new BitSet(stateCount);
+
+        long edgeCount = 0;
+        int maxSuccessors = 0;
+        for (int state = 0; state < stateCount; state++) {
+            int successorCount = countDistinct(state, buffer, problem.getSuccessors(state, buffer));
+            maxSuccessors = Math.max(maxSuccessors, successorCount);
+            edgeCount += successorCount;
+            if (edgeCount > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("State graph has more than " + Integer.MAX_VALUE + " transitions");
+            offsets[state + 1] = (int) edgeCount;
+            if (problem.isGoalState(state))
+                goals.set(state);
+        }
+
+        int[] targets = new int[(int) edgeCount];
+        for (int state = 0; state < stateCount; state++) {
+            int successorCount = countDistinct(state, buffer, problem.getSuccessors(state, buffer));
+            System.arraycopy(buffer, 0, targets, offsets[state], successorCount);
+        }
+        return new StateGraph(problem, offsets, targets, goals, maxSuccessors);
+    }
+
+    private static int countDistinct(int state, int[] buffer, int successorCount) {
+        int distinct = 0;
+        for (int i = 0; i < successorCount; i++) {
+            int successor = buffer[i];
+            if (successor == state)
+                continue;
+            boolean seen = false;
+            for (int j = 0; j < distinct && !seen; j++)
+                seen = buffer[j] == successor;
+            if (!seen)
+                buffer[distinct++] = successor;
+        }
+        return distinct;
+    }
+
+    public int getStateCount() {
+        return _stateCount;
+    }
+
+    public int getStartState() {
+        return _startState;
+    }
+
+    public boolean isGoalState(int state) {
+        return _goals.get(state);
+    }
+
+    public BitSet getGoals() {
+        return _goals;
+    }
+
+    public int getMaxSuccessors() {
+        return _maxSuccessors;
+    }
+
+    public int getSuccessors(int state, int[] buffer) {
+        int from = _offsets[state];
+        int count = _offsets[state + 1] - from;
+        System.arraycopy(_targets, from, buffer, 0, count);
+        return count;
+    }
+
+    public int getTransitionCount() {
+        return _targets.length;
+    }
+
+    public long getSizeInBytes() {
+        return 4L * _offsets.length + 4L * _targets.length + _goals.size() / 8;
+    }
+
+    public String describe(int state) {
+        return _source.describe(state);
+    }
+}
+
+class StateSpaceEngine extends AbstractSearchEngine {
+    private final BitSet _visited = new BitSet();
+    private int[] _queue = new int[0];
+    private int[] _parent = new int[0];
+    private int[] _successors = new int[0];
+
+    public BitSet getVisited() {
+        return _visited;
+    }
+
+    protected SearchResult PerformSearch(SearchProblem problem) {
+        int stateCount = problem.getStateCount();
+        _visited.clear();
+        if (_queue.length != stateCount) {
+            _queue = new int[stateCount];
+            _parent = new int[stateCount];
+        }
+        if (_successors.length < problem.getMaxSuccessors())
+            _successors = new int[problem.getMaxSuccessors()];
+
+        int start = problem.getStartState();
+        _parent[start] = -1;
+        _visited.set(start);
+        if (problem.isGoalState(start))
+            return new SearchResult(new int[] {start}, null, _stats);
+
+        int head = 0, tail = 0, layerEnd = 1, depth = 0;
+        _queue[tail++] = start;
+        while (head < tail) {
+            if (head == layerEnd) {
+                layerEnd = tail;
+                depth++;
+            }
+            int state = _queue[head++];
+            _stats.expansions++;
+            if (_listener != null)
+                _listener.onExpand(problem, state, depth);
+
+            int successorCount = problem.getSuccessors(state, _successors);
+            for (int i = 0; i < successorCount; i++) {
+                int child = _successors[i];
+                _stats.generated++;
+                if (_visited.get(child)) {
+                    _stats.duplicates++;
+                    continue;
+                }
+                if (_listener != null)
+                    _listener.onGenerate(problem, child, depth + 1);
+
+                _visited.set(child);
+                _parent[child] = state;
+                if (problem.isGoalState(child))
+                    return new SearchResult(SearchResult.tracePath(_parent, child), null, _stats);
+                _queue[tail++] = child;
+            }
+            _stats.updateFrontier(tail - head);
+        }
+        return new SearchResult(null, null, _stats);
+    }
+}
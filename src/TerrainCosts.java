@@ -0,0 +1,84 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+class TerrainCosts {
+    static final int _minCost = 1;
+    static final int _maxCost = 255;
+    static final int[] _diagonalCosts = new int[_maxCost + 1];
+
+    static {
+        for (int cost = 0; cost <= _maxCost; cost++)
+            _diagonalCosts[cost] = (int) Math.ceil(cost * Math.sqrt(2));
+    }
+
+    private final byte[] _costs;
+    private final int _width;
+    private final int _height;
+    private int _lowestCost;
+
+    public TerrainCosts(int widthIn, int heightIn) {
+        if ((long) widthIn * heightIn > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Terrain of " + widthIn + "x" + heightIn + " cells is too large");
+        _width = widthIn;
+        _height = heightIn;
+        _costs = new byte[widthIn * heightIn];
+        Arrays.fill(_costs, (byte) _minCost);
+        _lowestCost = _minCost;
+    }
+
+    public static TerrainCosts uniform(Grid grid) {
+        return new TerrainCosts(grid.getWidth(), grid.getHeight());
+    }
+
+    public static TerrainCosts randomize(int width, int height, int maxCost, long seed) {
+        if (maxCost < _minCost || maxCost > _maxCost)
+            throw new IllegalArgumentException("Maximum cost must be between " + _minCost + " and " + _maxCost + ", got " + maxCost);
+        TerrainCosts terrain = new TerrainCosts(width, height);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] rows = new SplittableRandom[height];
+        for (int y = 0; y < height; y++)
+            rows[y] = root.split();
+        IntStream.range(0, height).parallel().forEach(y -> {
+            SplittableRandom random = rows[y];
+            for (int x = 0, cell = y * width; x < width; x++, cell++)
+                terrain._costs[cell] = (byte) random.nextInt(_minCost, maxCost + 1);
+        });
+        int lowestCost = _maxCost;
+        for (byte cost : terrain._costs)
+            lowestCost = Math.min(lowestCost, cost & 0xFF);
+        terrain._lowestCost = lowestCost;
+        return terrain;
+    }
+
+    public int getWidth() {
+        return _width;
+    }
+
+    public int getHeight() {
+        return _height;
+    }
+
+    public int getCost(int cell) {
+        return _costs[cell] & 0xFF;
+    }
+
+    public int getDiagonalCost(int cell) {
+        return _diagonalCosts[_costs[cell] & 0xFF];
+    }
+
+    public void setCost(int cell, int cost) {
+        if (cost < _minCost || cost > _maxCost)
+            throw new IllegalArgumentException("Cost must be between " + _minCost + " and " + _maxCost + ", got " + cost);
+        _costs[cell] = (byte) cost;
+        _lowestCost = Math.min(_lowestCost, cost);
+    }
+
+    public int getLowestCost() {
+        return _lowestCost;
+    }
+
+    public long getSizeInBytes() {
+        return _costs.length;
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+class VacuumLayerSearch {
+    static final int _chunkWords = 1 << 12;
+    static final long[] _highBits = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    private final int _roomCount;
+    private final int _blockWords;
+    private final long _blockMask;
+    private final int _startRoom;
+    private final int _startMask;
+    private long[] _frontier;
+    private long[] _next;
+    private long[] _visited;
+    private long[] _layerSizes = new long[0];
+    private int _goalDepth = -1;
+    private long _reachableCount;
+
+    public VacuumLayerSearch(VacuumWorld worldIn) {
+        _roomCount = worldIn.getRoomCount();
+        _blockWords = Math.max(1, (1 << _roomCount) >>> 6);
+        _blockMask = _roomCount >= 6 ? -1L : (1L << (1 << _roomCount)) - 1;
+        _startRoom = worldIn.getRoom(worldIn.getStartState());
+        _startMask = worldIn.getDirtMask(worldIn.getStartState());
+    }
+
+    public static long getSizeInBytes(int roomCount) {
+        return 3L * 8 * roomCount * Math.max(1, (1 << roomCount) >>> 6);
+    }
+
+    public long[] run() {
+        int words = _roomCount * _blockWords;
+        _frontier = new long[words];
+        _next = new long[words];
+        _visited = new long[words];
+        long[] layerSizes = new long[16];
+        try {
+            setBit(_frontier, _startRoom, _startMask);
+            setBit(_visited, _startRoom, _startMask);
+            layerSizes[0] = 1;
+            _reachableCount = 1;
+            _goalDepth = _startMask == 0 ? 0 : -1;
+
+            int depth = 0;
+            while (true) {
+                long layerSize = expand();
+                if (layerSize == 0)
+                    break;
+                depth++;
+                if (depth == layerSizes.length)
+                    layerSizes = Arrays.copyOf(layerSizes, depth * 2);
+                layerSizes[depth] = layerSize;
+                _reachableCount += layerSize;
+                if (_goalDepth == -1 && containsGoal(_next))
+                    _goalDepth = depth;
+
+                long[] swap = _frontier;
+                _frontier = _next;
+                _next = swap;
+            }
+            _layerSizes = Arrays.copyOf(layerSizes, depth + 1);
+            return _layerSizes;
+        }
+        finally {
+            _frontier = null;
+            _next = null;
+            _visited = null;
+        }
+    }
+
+    private long expand() {
+        int chunks = (_blockWords + _chunkWords - 1) / _chunkWords;
+        return IntStream.range(0, _roomCount * chunks).parallel()
+                .mapToLong(task -> expand(task / chunks, (task % chunks) * _chunkWords,
+                        Math.min(_blockWords, (task % chunks + 1) * _chunkWords)))
+                .sum();
+    }
+
+    private long expand(int room, int from, int to) {
+        int base = room * _blockWords;
+        int leftBase = room < _roomCount - 1 ? base + _blockWords : -1;
+        int rightBase = room > 0 ? base - _blockWords : -1;
+        int wordBit = room >= 6 ? 1 << (room - 6) : 0;
+        long count = 0;
+        for (int word = from; word < to; word++) {
+            long reached = 0;
+            if (leftBase != -1)
+                reached |= _frontier[leftBase + word];
+            if (rightBase != -1)
+                reached |= _frontier[rightBase + word];
+            if (room >= 6) {
+                if ((word & wordBit) == 0)
+                    reached |= _frontier[base + (word ^ wordBit)];
+            }
+            else {
+                reached |= (_frontier[base + word] & _highBits[room]) >>> (1 << room);
+            }
+
+            int index = base + word;
+            reached &= ~_visited[index] & _blockMask;
+            _next[index] = reached;
+            _visited[index] |= reached;
+            count += Long.bitCount(reached);
+        }
+        return count;
+    }
+
+    private boolean containsGoal(long[] layer) {
+        for (int room = 0; room < _roomCount; room++)
+            if ((layer[room * _blockWords] & 1) != 0)
+                return true;
+        return false;
+    }
+
+    private void setBit(long[] layer, int room, int dirtMask) {
+        layer[room * _blockWords + (dirtMask >>> 6)] |= 1L << (dirtMask & 63);
+    }
+
+    public long[] getLayerSizes() {
+        return _layerSizes;
+    }
+
+    public int getGoalDepth() {
+        return _goalDepth;
+    }
+
+    public int getDepth() {
+        return _layerSizes.length - 1;
+    }
+
+    public long getReachableCount() {
+        return _reachableCount;
+    }
+}
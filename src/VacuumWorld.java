@@ -0,0 +1,72 @@
+class VacuumWorld implements SearchProblem {
+    static final int _maxRoomCount = 26;
+
+    private final int _roomCount;
+    private final int _startState;
+
+    public VacuumWorld(int roomCountIn) {
+        this(roomCountIn, (1 << roomCountIn) - 1, 0);
+    }
+
+    public VacuumWorld(int roomCountIn, int dirtMask, int startRoom) {
+        if (roomCountIn < 1 || roomCountIn > _maxRoomCount)
+            throw new IllegalArgumentException("Room count must be between 1 and " + _maxRoomCount + ", got " + roomCountIn);
+        _roomCount = roomCountIn;
+        _startState = toState(dirtMask, startRoom);
+    }
+
+    public int getRoomCount() {
+        return _roomCount;
+    }
+
+    public int toState(int dirtMask, int room) {
+        return dirtMask * _roomCount + room;
+    }
+
+    public int getDirtMask(int state) {
+        return state / _roomCount;
+    }
+
+    public int getRoom(int state) {
+        return state % _roomCount;
+    }
+
+    public int getStateCount() {
+        return (1 << _roomCount) * _roomCount;
+    }
+
+    public int getStartState() {
+        return _startState;
+    }
+
+    public boolean isGoalState(int state) {
+        return state < _roomCount;
+    }
+
+    public int getMaxSuccessors() {
+        return 3;
+    }
+
+    public int getSuccessors(int state, int[] buffer) {
+        int room = getRoom(state);
+        int dirtMask = getDirtMask(state);
+        buffer[0] = room > 0 ? state - 1 : state;
+        buffer[1] = room < _roomCount - 1 ? state + 1 : state;
+        buffer[2] = toState(dirtMask & ~(1 << room), room);
+        return 3;
+    }
+
+    public String describe(int state) {
+        int room = getRoom(state);
+        int dirtMask = getDirtMask(state);
+        StringBuilder builder = new StringBuilder(_roomCount + 2);
+        for (int i = 0; i < _roomCount; i++) {
+            if (i == room)
+                builder.append('[');
+            builder.append((dirtMask & (1 << i)) != 0 ? '*' : '_');
+            if (i == room)
+                builder.append(']');
+        }
+        return builder.toString();
+    }
+}
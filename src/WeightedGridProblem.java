@@ -0,0 +1,107 @@
+class WeightedGridProblem implements SearchProblem {
+    private final Grid _grid;
+    private final TerrainCosts _terrain;
+    private final boolean _diagonal;
+    private final int _width;
+    private final int _height;
+    private final int _startCell;
+    private final int _goalCell;
+    private final int _goalX;
+    private final int _goalY;
+
+    public WeightedGridProblem(Grid gridIn, TerrainCosts terrainIn, boolean diagonalIn) {
+        this(gridIn, terrainIn, diagonalIn, gridIn.getStartCell(), gridIn.getGoalCell());
+    }
+
+    public WeightedGridProblem(Grid gridIn, TerrainCosts terrainIn, boolean diagonalIn, int startCellIn, int goalCellIn) {
+        if (terrainIn.getWidth() != gridIn.getWidth() || terrainIn.getHeight() != gridIn.getHeight())
+            throw new IllegalArgumentException("Terrain is " + terrainIn.getWidth() + "x" + terrainIn.getHeight()
+                    + " but grid is " + gridIn.getWidth() + "x" + gridIn.getHeight());
+        _grid = gridIn;
+        _terrain = terrainIn;
+        _diagonal = diagonalIn;
+        _width = gridIn.getWidth();
+        _height = gridIn.getHeight();
+        _startCell = startCellIn;
+        _goalCell = goalCellIn;
+        _goalX = goalCellIn == -1 ? 0 : goalCellIn % _width;
+        _goalY = goalCellIn == -1 ? 0 : goalCellIn / _width;
+    }
+
+    public Grid getGrid() {
+        return _grid;
+    }
+
+    public TerrainCosts getTerrain() {
+        return _terrain;
+    }
+
+    public boolean isDiagonal() {
+        return _diagonal;
+    }
+
+    public int getStateCount() {
+        return _width * _height;
+    }
+
+    public int getStartState() {
+        return _startCell;
+    }
+
+    public int getGoalState() {
+        return _goalCell;
+    }
+
+    public boolean isGoalState(int state) {
+        return state == _goalCell;
+    }
+
+    public int getMaxSuccessors() {
+        return _diagonal ? 8 : 4;
+    }
+
+    public int getSuccessors(int state, int[] buffer) {
+        int y = state / _width;
+        int x = state % _width;
+        boolean north = y > 0 && !_grid.isJammed(state - _width);
+        boolean west = x > 0 && !_grid.isJammed(state - 1);
+        boolean south = y < _height - 1 && !_grid.isJammed(state + _width);
+        boolean east = x < _width - 1 && !_grid.isJammed(state + 1);
+        int count = 0;
+        if (north) buffer[count++] = state - _width;
+        if (west) buffer[count++] = state - 1;
+        if (south) buffer[count++] = state + _width;
+        if (east) buffer[count++] = state + 1;
+        if (_diagonal) {
+            if (north && east && !_grid.isJammed(state - _width + 1)) buffer[count++] = state - _width + 1;
+            if (south && east && !_grid.isJammed(state + _width + 1)) buffer[count++] = state + _width + 1;
+            if (south && west && !_grid.isJammed(state + _width - 1)) buffer[count++] = state + _width - 1;
+            if (north && west && !_grid.isJammed(state - _width - 1)) buffer[count++] = state - _width - 1;
+        }
+        return count;
+    }
+
+    public int getPredecessors(int state, int[] buffer) {
+        return getSuccessors(state, buffer);
+    }
+
+    public int getCost(int state, int successor) {
+        boolean straight = successor % _width == state % _width || successor / _width == state / _width;
+        return straight ? _terrain.getCost(successor) : _terrain.getDiagonalCost(successor);
+    }
+
+    public int getHeuristic(int state) {
+        int dx = Math.abs(state % _width - _goalX);
+        int dy = Math.abs(state / _width - _goalY);
+        int straightBound = _terrain.getLowestCost();
+        if (!_diagonal)
+            return (dx + dy) * straightBound;
+        int diagonalBound = Math.min(TerrainCosts._diagonalCosts[straightBound], 2 * straightBound);
+        int diagonalSteps = Math.min(dx, dy);
+        return (Math.max(dx, dy) - diagonalSteps) * straightBound + diagonalSteps * diagonalBound;
+    }
+
+    public String describe(int state) {
+        return "(" + state / _width + "," + state % _width + ")";
+    }
+}
@@ -0,0 +1,43 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class AbstractGraphCacheTest {
+    static void fragment(Grid grid, AbstractGraphCache cache) {
+        SplittableRandom random = new SplittableRandom(4);
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            if (grid.getMarker(cell) == AutonomousVehicleNavigator._clearMarker && random.nextInt(3) == 0) {
+                grid.setMarker(cell, AutonomousVehicleNavigator._jammedMarker);
+                cache.onCellChanged(grid, cell);
+            }
+        }
+    }
+
+    @Test
+    void usedBytesFollowRefreshedGraphs() {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(128, 128, 0, 9);
+        AbstractGraphCache cache = new AbstractGraphCache(16);
+        AbstractGraph graph = cache.get(grid);
+        long before = graph.getSizeInBytes();
+        assertEquals(before, cache.getUsedBytes());
+
+        fragment(grid, cache);
+        cache.get(grid);
+        assertTrue(graph.getSizeInBytes() > before);
+        assertEquals(graph.getSizeInBytes(), cache.getUsedBytes());
+    }
+
+    @Test
+    void refreshedGraphsStayWithinTheBudget() {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(128, 128, 0, 9);
+        AbstractGraphCache cache = new AbstractGraphCache(16);
+        cache.setMaxBytes(cache.get(grid).getSizeInBytes());
+        fragment(grid, cache);
+        cache.get(grid);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getUsedBytes());
+    }
+}
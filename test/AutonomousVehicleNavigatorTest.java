@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class AutonomousVehicleNavigatorTest {
+    static AutonomousVehicleNavigator createNavigator() {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(48, 48, 0.2, 11);
+        AutonomousVehicleNavigator navigator = new AutonomousVehicleNavigator(grid, false);
+        navigator.setTerrain(TerrainCosts.randomize(48, 48, 9, 5), false);
+        return navigator;
+    }
+
+    @Test
+    void costAwareModesAgreeOnTerrain() {
+        AutonomousVehicleNavigator navigator = createNavigator();
+        ArrayList<SearchNode> uniformCost = navigator.Solve(SearchMode.UniformCost);
+        assertNotNull(uniformCost);
+        long optimal = uniformCost.get(uniformCost.size() - 1).cost;
+        for (SearchMode mode : new SearchMode[] {SearchMode.AStar, SearchMode.Anytime}) {
+            ArrayList<SearchNode> path = navigator.Solve(mode);
+            assertEquals(optimal, path.get(path.size() - 1).cost, mode::toString);
+        }
+        assertTrue(optimal > uniformCost.size() - 1);
+    }
+
+    @Test
+    void cheaperCellsAfterSetTerrainKeepRoutesOptimal() {
+        int checked = 0;
+        for (long seed = 1; seed <= 40; seed++) {
+            for (boolean diagonal : new boolean[] {false, true}) {
+                Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(12, 12, 0.15, seed);
+                TerrainCosts terrain = TerrainCosts.randomize(12, 12, 255, seed);
+                if (terrain.getLowestCost() == 1)
+                    continue;
+                AutonomousVehicleNavigator navigator = new AutonomousVehicleNavigator(grid, false);
+                navigator.setTerrain(terrain, diagonal);
+                for (int cell = 0; cell < grid.getCellCount(); cell += 2)
+                    terrain.setCost(cell, 1);
+                ArrayList<SearchNode> uniformCost = navigator.Solve(SearchMode.UniformCost);
+                if (uniformCost == null)
+                    continue;
+                ArrayList<SearchNode> aStar = navigator.Solve(SearchMode.AStar);
+                assertEquals(uniformCost.get(uniformCost.size() - 1).cost, aStar.get(aStar.size() - 1).cost);
+                checked++;
+            }
+        }
+        assertTrue(checked > 20);
+    }
+
+    @Test
+    void modesThatIgnoreTerrainAreRejected() {
+        AutonomousVehicleNavigator navigator = createNavigator();
+        for (SearchMode mode : SearchMode.values()) {
+            if (mode.honoursTerrain())
+                continue;
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> navigator.Solve(mode));
+            assertTrue(e.getMessage().contains(mode.toString()));
+            assertThrows(IllegalArgumentException.class, () -> navigator.SolvePacked(mode));
+        }
+        assertThrows(IllegalArgumentException.class, navigator::StreamPath);
+        assertThrows(IllegalArgumentException.class, () -> navigator.SolveFleet(new int[0], new int[0], SearchBudget.unlimited()));
+
+        navigator.setTerrain(null, false);
+        for (SearchMode mode : SearchMode.values())
+            assertNotNull(navigator.Solve(mode), mode::toString);
+    }
+
+    @Test
+    void textGridRowsWithInvalidCellsAreRejected() {
+        ArrayGrid grid = AutonomousVehicleNavigator.GridFactory.parseTextGrid("# map\n2 0 0\n\n// middle\n0 1 3\n");
+        assertEquals(3, grid.getWidth());
+        assertEquals(2, grid.getHeight());
+        for (String row : new String[] {"4 0 0", "x 1 1"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> AutonomousVehicleNavigator.GridFactory.parseTextGrid("2 0 0\n" + row + "\n0 0 3\n"));
+            assertTrue(e.getMessage().startsWith("Invalid cell"), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class BatchNavigatorTest {
+    static final int _queryCount = 32;
+
+    static List<RouteResult> solveAll(SearchMode mode) {
+        return solveAll(mode, null);
+    }
+
+    static List<RouteResult> solveAll(SearchMode mode, TerrainCosts terrain) {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(64, 64, 0.2, 7);
+        int[] startCells = new int[_queryCount];
+        int[] goalCells = new int[_queryCount];
+        for (int i = 0, cell = 0; i < _queryCount; i++) {
+            while (grid.isJammed(cell))
+                cell++;
+            startCells[i] = cell++;
+            goalCells[i] = grid.getCellCount() - 1 - startCells[i];
+            while (grid.isJammed(goalCells[i]))
+                goalCells[i]--;
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BatchNavigator navigator = new BatchNavigator(grid, mode, pool);
+            navigator.setTerrain(terrain, false);
+            return navigator.Solve(startCells, goalCells).sorted(Comparator.comparingInt(result -> result.query))
+                    .collect(Collectors.toList());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    static void assertMatchesBreadthFirst(List<RouteResult> expected, List<RouteResult> actual) {
+        assertEquals(_queryCount, actual.size());
+        for (int i = 0; i < _queryCount; i++) {
+            RouteResult result = actual.get(i);
+            assertNull(result.failure, () -> "Query " + result.query + " failed with " + result.failure);
+            assertEquals(expected.get(i).isSolved(), result.isSolved());
+            if (result.isSolved()) {
+                assertEquals(result.startCell, result.path[0]);
+                assertEquals(result.goalCell, result.path[result.path.length - 1]);
+                assertTrue(result.exploredCount > 0);
+            }
+        }
+    }
+
+    @Test
+    void parallelBreadthFirstQueriesSucceed() {
+        List<RouteResult> expected = solveAll(SearchMode.BreadthFirst);
+        List<RouteResult> actual = solveAll(SearchMode.ParallelBreadthFirst);
+        assertMatchesBreadthFirst(expected, actual);
+        for (int i = 0; i < _queryCount; i++)
+            if (expected.get(i).isSolved())
+                assertArrayEquals(expected.get(i).path, actual.get(i).path);
+    }
+
+    @Test
+    void hierarchicalQueriesSucceed() {
+        assertMatchesBreadthFirst(solveAll(SearchMode.BreadthFirst), solveAll(SearchMode.Hierarchical));
+    }
+
+    @Test
+    void terrainQueriesFollowCheapestRoute() {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(64, 64, 0.2, 7);
+        TerrainCosts terrain = TerrainCosts.randomize(64, 64, 9, 3);
+        WeightedGridProblem costs = new WeightedGridProblem(grid, terrain, false);
+        List<RouteResult> expected = solveAll(SearchMode.UniformCost, terrain);
+        List<RouteResult> actual = solveAll(SearchMode.AStar, terrain);
+        for (int i = 0; i < _queryCount; i++) {
+            assertNull(actual.get(i).failure);
+            assertEquals(expected.get(i).isSolved(), actual.get(i).isSolved());
+            if (actual.get(i).isSolved())
+                assertEquals(getCost(costs, expected.get(i).path), getCost(costs, actual.get(i).path));
+        }
+    }
+
+    @Test
+    void terrainIsRejectedByModesThatIgnoreIt() {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(64, 64, 0.2, 7);
+        BatchNavigator navigator = new BatchNavigator(grid, SearchMode.JumpPoint);
+        assertThrows(IllegalArgumentException.class, () -> navigator.setTerrain(TerrainCosts.uniform(grid), false));
+        BatchNavigator weighted = new BatchNavigator(grid, SearchMode.AStar);
+        assertThrows(IllegalArgumentException.class, () -> weighted.setTerrain(new TerrainCosts(8, 8), false));
+    }
+
+    @Test
+    void errorsInQueriesStillCompleteTheStream() {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(64, 64, 0.2, 7);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BatchNavigator navigator = new BatchNavigator(grid, SearchMode.AStar, pool);
+            navigator.setListener(new SearchListener() {
+                public void onExpand(SearchProblem problem, int state, int depth) {
+                    throw new AssertionError("listener failed");
+                }
+            });
+            int[] cells = {grid.getStartCell(), grid.getStartCell()};
+            int[] goals = {grid.getGoalCell(), grid.getGoalCell()};
+            List<RouteResult> results = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> navigator.Solve(cells, goals).collect(Collectors.toList()));
+            assertEquals(2, results.size());
+            for (RouteResult result : results)
+                assertTrue(result.failure instanceof AssertionError);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    static long getCost(WeightedGridProblem costs, int[] path) {
+        long cost = 0;
+        for (int i = 1; i < path.length; i++)
+            cost += costs.getCost(path[i - 1], path[i]);
+        return cost;
+    }
+}
@@ -0,0 +1,33 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalEngineTest {
+    @Test
+    void staleSnapshotsAreNotRefinedOnTheLiveGrid() {
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(96, 96, 0, 2);
+        AbstractGraphCache cache = new AbstractGraphCache(16);
+        HierarchicalEngine engine = new HierarchicalEngine(cache);
+        GridProblem problem = new GridProblem(grid, 0, grid.getCellCount() - 1);
+        int[] path = engine.search(problem).path;
+        assertNotNull(path);
+
+        int blocked = path[path.length / 2];
+        grid.setMarker(blocked, AutonomousVehicleNavigator._jammedMarker);
+        assertThrows(ConcurrentModificationException.class, () -> engine.search(problem));
+
+        cache.onCellChanged(grid, blocked);
+        int[] detour = engine.search(problem).path;
+        assertTrue(detour.length >= new BreadthFirstEngine().search(problem).path.length);
+        assertEquals(0, detour[0]);
+        assertEquals(grid.getCellCount() - 1, detour[detour.length - 1]);
+        for (int cell : detour)
+            assertFalse(grid.isJammed(cell));
+    }
+}
@@ -0,0 +1,58 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class JumpPointEngineTest {
+    static void assertValidPath(Grid grid, GridProblem problem, int[] path) {
+        assertEquals(problem.getStartState(), path[0]);
+        assertEquals(problem.getGoalState(), path[path.length - 1]);
+        for (int i = 1; i < path.length; i++) {
+            int dx = Math.abs(path[i] % grid.getWidth() - path[i - 1] % grid.getWidth());
+            int dy = Math.abs(path[i] / grid.getWidth() - path[i - 1] / grid.getWidth());
+            assertEquals(1, dx + dy);
+            assertFalse(grid.isJammed(path[i]));
+        }
+    }
+
+    @Test
+    void pathLengthsMatchBreadthFirst() {
+        SplittableRandom random = new SplittableRandom(23);
+        BreadthFirstEngine breadthFirst = new BreadthFirstEngine();
+        JumpPointEngine jumpPoint = new JumpPointEngine();
+        int unreachable = 0;
+        for (int i = 0; i < 300; i++) {
+            Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(2 + random.nextInt(80), 2 + random.nextInt(80),
+                    random.nextDouble() * 0.45, random.nextLong());
+            GridProblem problem = new GridProblem(grid);
+            int[] expected = breadthFirst.search(problem).path;
+            int[] actual = jumpPoint.search(problem).path;
+            if (expected == null) {
+                assertNull(actual);
+                unreachable++;
+                continue;
+            }
+            assertEquals(expected.length, actual.length);
+            assertValidPath(grid, problem, actual);
+        }
+        assertTrue(unreachable > 0);
+    }
+
+    @Test
+    void enclosedGoalIsUnreachable() {
+        int[][] cells = new int[12][12];
+        cells[0][0] = AutonomousVehicleNavigator._startMarker;
+        cells[6][6] = AutonomousVehicleNavigator._goalMarker;
+        for (int y = 5; y <= 7; y++)
+            for (int x = 5; x <= 7; x++)
+                if (cells[y][x] == AutonomousVehicleNavigator._clearMarker)
+                    cells[y][x] = AutonomousVehicleNavigator._jammedMarker;
+        GridProblem problem = new GridProblem(new ArrayGrid(cells));
+        assertNull(new BreadthFirstEngine().search(problem).path);
+        assertNull(new JumpPointEngine().search(problem).path);
+    }
+}
@@ -0,0 +1,42 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedGridTest {
+    @TempDir
+    Path _directory;
+
+    @Test
+    void invalidHeaderSizesAreRejected() throws IOException {
+        int[][] sizes = {{0, 4}, {4, 0}, {-1, -1}, {1 << 16, 1 << 16}};
+        for (int[] size : sizes) {
+            Path path = _directory.resolve("grid" + size[0] + "x" + size[1] + ".bin");
+            ByteBuffer header = ByteBuffer.allocate(MappedGrid._headerSize + 16).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MappedGrid._magic).putInt(MappedGrid._version).putInt(size[0]).putInt(size[1]);
+            Files.write(path, header.array());
+            IOException e = assertThrows(IOException.class, () -> MappedGrid.open(path));
+            assertTrue(e.getMessage().startsWith("Invalid grid size"), e.getMessage());
+        }
+    }
+
+    @Test
+    void writtenGridsOpen() throws IOException {
+        Path path = _directory.resolve("grid.bin");
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(9, 7, 0.3, 3);
+        MappedGrid.write(grid, path);
+        MappedGrid mapped = MappedGrid.open(path);
+        assertEquals(9, mapped.getWidth());
+        assertEquals(7, mapped.getHeight());
+        for (int cell = 0; cell < grid.getCellCount(); cell++)
+            assertEquals(grid.isJammed(cell), mapped.isJammed(cell));
+    }
+}
@@ -0,0 +1,146 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class MultiAgentPlannerTest {
+    static int[] randomDistinctClearCells(Grid grid, int count, SplittableRandom random) {
+        BitSet used = new BitSet(grid.getCellCount());
+        int[] cells = new int[count];
+        for (int i = 0; i < count; i++) {
+            do {
+                cells[i] = random.nextInt(grid.getCellCount());
+            } while (grid.isJammed(cells[i]) || used.get(cells[i]));
+            used.set(cells[i]);
+        }
+        return cells;
+    }
+
+    static int getCell(int[] path, int time) {
+        return path[Math.min(time, path.length - 1)];
+    }
+
+    static void assertCollisionFree(Grid grid, int[] startCells, int[][] paths) {
+        int makespan = MultiAgentPlanner.getMakespan(paths);
+        for (int agent = 0; agent < paths.length; agent++) {
+            assertNotNull(paths[agent], "Agent " + agent + " has no path");
+            assertEquals(startCells[agent], paths[agent][0]);
+            for (int time = 1; time < paths[agent].length; time++) {
+                int step = Math.abs(paths[agent][time] - paths[agent][time - 1]);
+                assertEquals(true, step == 0 || step == 1 || step == grid.getWidth(), "Agent " + agent + " jumps at " + time);
+            }
+        }
+        for (int time = 0; time <= makespan + 1; time++) {
+            int[] occupant = new int[grid.getCellCount()];
+            for (int agent = 0; agent < paths.length; agent++) {
+                int cell = getCell(paths[agent], time);
+                assertEquals(0, occupant[cell], "Agents " + (occupant[cell] - 1) + " and " + agent + " meet at time " + time);
+                occupant[cell] = agent + 1;
+            }
+            if (time == 0)
+                continue;
+            for (int first = 0; first < paths.length; first++) {
+                int from = getCell(paths[first], time - 1);
+                int to = getCell(paths[first], time);
+                if (from == to)
+                    continue;
+                for (int second = first + 1; second < paths.length; second++)
+                    assertEquals(false, getCell(paths[second], time - 1) == to && getCell(paths[second], time) == from,
+                            "Agents " + first + " and " + second + " swap at time " + time);
+            }
+        }
+    }
+
+    @Test
+    void unplannedAgentsKeepTheirStartCell() {
+        int stuckAgents = 0;
+        for (long seed = 0; seed < 40; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(24, 24, 0.25, random.nextLong());
+            int[] startCells = randomDistinctClearCells(grid, 80, random);
+            int[] goalCells = randomDistinctClearCells(grid, 80, random);
+            int[][] paths = new MultiAgentPlanner(grid).plan(startCells, goalCells);
+
+            assertCollisionFree(grid, startCells, paths);
+            for (int agent = 0; agent < paths.length; agent++) {
+                if (paths[agent][paths[agent].length - 1] == goalCells[agent])
+                    continue;
+                stuckAgents++;
+                assertEquals(1, paths[agent].length);
+                for (int other = 0; other < paths.length; other++)
+                    for (int time = 0; other != agent && time < paths[other].length; time++)
+                        assertNotEquals(startCells[agent], paths[other][time],
+                                "Agent " + other + " enters the start of stuck agent " + agent + " at time " + time);
+            }
+        }
+        assertNotEquals(0, stuckAgents);
+    }
+
+    @Test
+    void fleetOnLargeGridIsCollisionFree() {
+        SplittableRandom random = new SplittableRandom(9);
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(128, 128, 0.2, 9);
+        int[] startCells = randomDistinctClearCells(grid, 150, random);
+        int[] goalCells = randomDistinctClearCells(grid, 150, random);
+        MultiAgentPlanner planner = new MultiAgentPlanner(grid);
+        int[][] paths = planner.plan(startCells, goalCells);
+        assertCollisionFree(grid, startCells, paths);
+        assertEquals(paths.length - planner.getFailedCount(), countArrived(paths, goalCells));
+    }
+
+    @Test
+    void exhaustedBudgetSkipsSoloPlanning() {
+        SplittableRandom random = new SplittableRandom(3);
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(256, 256, 0.2, 3);
+        int[] startCells = randomDistinctClearCells(grid, 400, random);
+        int[] goalCells = randomDistinctClearCells(grid, 400, random);
+        MultiAgentPlanner planner = new MultiAgentPlanner(grid);
+        SearchBudget budget = SearchBudget.unlimited();
+        budget.cancel();
+        int[][] paths = planner.plan(startCells, goalCells, budget);
+        assertEquals(0, planner.getExpansions());
+        assertEquals(paths.length, planner.getFailedCount());
+        assertCollisionFree(grid, startCells, paths);
+    }
+
+    @Test
+    void soloExpansionsAreCountedAndBudgeted() {
+        SplittableRandom random = new SplittableRandom(5);
+        Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(128, 128, 0.2, 5);
+        int[] startCells = randomDistinctClearCells(grid, 60, random);
+        int[] goalCells = randomDistinctClearCells(grid, 60, random);
+        MultiAgentPlanner planner = new MultiAgentPlanner(grid);
+        planner.plan(startCells, goalCells);
+        long unlimited = planner.getExpansions();
+        long soloOnly = 0;
+        AStarEngine engine = new AStarEngine();
+        for (int agent = 0; agent < startCells.length; agent++)
+            soloOnly += engine.search(new GridProblem(grid, startCells[agent], goalCells[agent])).stats.expansions;
+        assertTrue(unlimited >= soloOnly);
+
+        int[][] paths = planner.plan(startCells, goalCells, SearchBudget.ofExpansions(soloOnly / 10));
+        assertTrue(planner.getExpansions() < soloOnly);
+        assertTrue(planner.getFailedCount() > 0);
+        assertCollisionFree(grid, startCells, paths);
+    }
+
+    @Test
+    void duplicateStartsAreRejected() {
+        Grid grid = new ByteGrid(4, 4);
+        assertThrows(IllegalArgumentException.class, () -> new MultiAgentPlanner(grid).plan(new int[] {0, 0}, new int[] {5, 6}));
+    }
+
+    static int countArrived(int[][] paths, int[] goalCells) {
+        int arrived = 0;
+        for (int agent = 0; agent < paths.length; agent++)
+            if (paths[agent][paths[agent].length - 1] == goalCells[agent])
+                arrived++;
+        return arrived;
+    }
+}
@@ -0,0 +1,33 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelBreadthFirstEngineTest {
+    static void assertSamePath(Grid grid) {
+        GridProblem problem = new GridProblem(grid);
+        SearchResult expected = new BreadthFirstEngine().search(problem);
+        ParallelBreadthFirstEngine engine = new ParallelBreadthFirstEngine();
+        for (int run = 0; run < 3; run++)
+            assertArrayEquals(expected.path, engine.search(problem).path);
+    }
+
+    @Test
+    void pathsMatchBreadthFirstOnRandomGrids() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int i = 0; i < 200; i++) {
+            Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(2 + random.nextInt(120), 2 + random.nextInt(120),
+                    random.nextDouble() * 0.45, random.nextLong());
+            assertSamePath(grid);
+        }
+    }
+
+    @Test
+    void pathsMatchBreadthFirstAcrossManyChunks() {
+        for (long seed = 1; seed <= 3; seed++) {
+            Grid grid = AutonomousVehicleNavigator.GridFactory.randomizeGrid(1200, 1200, 0.1, seed);
+            assertSamePath(grid);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RouteServiceTest {
+    @Test
+    void controlCharactersAreEscaped() {
+        assertEquals("a\\nb\\r\\t\\u0001\\u001f\\\"\\\\", RouteService.escape("a\nb\r\t\u0001\u001f\"\\"));
+        assertEquals("", RouteService.escape(null));
+    }
+
+    @Test
+    void resetMetricsStartsAFreshWindow() {
+        RouteService service = new RouteService(new DistanceFieldCache(1 << 24));
+        service.addGrid("open", AutonomousVehicleNavigator.GridFactory.randomizeGrid(16, 16, 0, 1));
+        service.route("open", 0, 255);
+        service.route("open", 17, 255);
+        assertTrue(service.getMetrics().contains("\"fieldLookups\":2"));
+        assertTrue(service.getMetrics().contains("\"cacheHits\":1"));
+
+        service.resetMetrics();
+        String metrics = service.getMetrics();
+        assertTrue(metrics.contains("\"requests\":0,\"failures\":0,\"fieldLookups\":0,\"coalesced\":0"), metrics);
+        assertTrue(metrics.contains("\"cacheHits\":0,\"cacheMisses\":0"), metrics);
+    }
+}
@@ -0,0 +1,26 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SearchBudgetTest {
+    @Test
+    void expiredDeadlineIsSeenWithoutMovingCounter() throws InterruptedException {
+        SearchBudget budget = SearchBudget.ofMillis(1);
+        Thread.sleep(5);
+        assertFalse(budget.isExhausted(1));
+        assertTrue(budget.isExhausted());
+        assertTrue(budget.isExhausted(64));
+    }
+
+    @Test
+    void cancelAndExpansionLimitsApplyImmediately() {
+        SearchBudget budget = SearchBudget.ofExpansions(10);
+        assertFalse(budget.isExhausted());
+        assertTrue(budget.isExhausted(10));
+        budget.cancel();
+        assertTrue(budget.isExhausted());
+        assertTrue(budget.isExhausted(1));
+        assertFalse(SearchBudget.unlimited().isExhausted());
+    }
+}